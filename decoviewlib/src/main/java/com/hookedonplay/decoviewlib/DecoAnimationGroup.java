@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import java.util.ArrayList;
+
+/**
+ * Group of {@link DecoView} that animate from one shared frame clock.
+ * <p/>
+ * Each DecoView normally posts its own frame callback while animating, so a screen with many
+ * views runs one callback per view and views that start animating together can drift apart by a
+ * frame. Views added to a group no longer post their own frames. A member that needs a frame
+ * requests it from the group, which posts one callback per frame and steps only the members that
+ * requested it, all with the same frame time, in a single pass. Idle members are not prepared or
+ * invalidated.
+ * <p/>
+ * A series takes the start time of its animation from the first frame after it is started, so
+ * animations started on members before the same frame of the group, such as calling
+ * {@link DecoView#moveTo(float[])} on each view, all start on that frame. Events added with
+ * {@link #addEvent(DecoEvent)} or {@link #addEvent(DecoView, DecoEvent)} are scheduled by the
+ * event manager of each view with the same base time, so events with the same delay are due
+ * together. They can be queried and cancelled through each view and are removed by
+ * {@link DecoView#executeReset()} and {@link DecoView#deleteAll()} as any other event.
+ * <p/>
+ * The group only references members while they are attached to a window, so a view does not have
+ * to be removed for its window to be released. A detached member rejoins when attached again.
+ * <p/>
+ * A group must only be used on the UI thread.
+ */
+@SuppressWarnings("unused")
+public class DecoAnimationGroup {
+    /**
+     * Frame interval used to pace frames where {@link Choreographer} is not available
+     */
+    static final private long FRAME_INTERVAL_MS = 16;
+
+    /**
+     * Members attached to a window
+     */
+    private final ArrayList<DecoView> mViews = new ArrayList<>();
+    /**
+     * Members that requested the next frame, swapped with {@link #mFrameViews} on each frame so
+     * members can request the following frame while being stepped
+     */
+    private ArrayList<DecoView> mRequestedViews = new ArrayList<>();
+    private ArrayList<DecoView> mFrameViews = new ArrayList<>();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private boolean mFrameScheduled;
+    private Choreographer.FrameCallback mFrameCallback;
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(AnimationUtils.currentAnimationTimeMillis());
+        }
+    };
+
+    /**
+     * Add a view to the group. Any animation in progress on the view continues on the frames of
+     * the group. A view can only belong to one group, it is removed from its previous group
+     *
+     * @param view view to add
+     */
+    public void addView(@NonNull DecoView view) {
+        if (view.getAnimationGroup() == this) {
+            return;
+        }
+        if (view.getAnimationGroup() != null) {
+            view.getAnimationGroup().removeView(view);
+        }
+        view.setAnimationGroup(this);
+    }
+
+    /**
+     * Remove a view from the group. The view runs its own frames again, events already added to
+     * the view through the group are unchanged
+     *
+     * @param view view to remove
+     */
+    public void removeView(@NonNull DecoView view) {
+        if (view.getAnimationGroup() == this) {
+            view.setAnimationGroup(null);
+        }
+    }
+
+    /**
+     * Number of views in the group that are attached to a window
+     *
+     * @return view count
+     */
+    public int getViewCount() {
+        return mViews.size();
+    }
+
+    /**
+     * Add an event for a view in the group. The event is scheduled by the view as with
+     * {@link DecoView#addEvent(DecoEvent)}, with its delay measured from now
+     *
+     * @param view  view to execute the event, which must be in the group
+     * @param event event to execute
+     */
+    public void addEvent(@NonNull DecoView view, @NonNull DecoEvent event) {
+        if (view.getAnimationGroup() != this) {
+            throw new IllegalArgumentException("View must be added to the group before adding events");
+        }
+        view.addEvent(event, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * Add an event to every attached view in the group. The delay is measured from the same time
+     * for every view, so the event starts on the same frame in all views.
+     * <p/>
+     * Each view is given its own copy of the event, so the views count the animations started by
+     * the event separately and an event sequenced after it in one view does not wait for the
+     * other views. The event passed is not scheduled itself, so it can not be passed as the previous
+     * event to {@link DecoView#addEventAfter(DecoEvent, DecoEvent)}. Views without a series at the
+     * index of the event are skipped. Linked views are faded by the first view only, and the
+     * listener of the event is called with the event passed, once when the first view starts the
+     * event and once when the animations started in every view have ended
+     *
+     * @param event event to execute
+     */
+    public void addEvent(@NonNull DecoEvent event) {
+        final long baseTime = SystemClock.uptimeMillis();
+        final GroupEventListener listener = event.getListener() != null ? new GroupEventListener(event) : null;
+        boolean linkedViews = event.getLinkedViews() != null;
+        for (int i = 0; i < mViews.size(); i++) {
+            final DecoView view = mViews.get(i);
+            if (event.getIndexPosition() >= 0 && view.getChartSeries(event.getIndexPosition()) == null) {
+                continue;
+            }
+            final DecoEvent.Builder builder = new DecoEvent.Builder(event).setListener(listener);
+            if (!linkedViews) {
+                builder.setLinkedViews(null);
+            }
+            linkedViews = false;
+            view.addEvent(builder.build(), baseTime);
+        }
+    }
+
+    /**
+     * Remove all pending events of every attached view in the group
+     */
+    public void resetEvents() {
+        for (int i = 0; i < mViews.size(); i++) {
+            mViews.get(i).resetEvents();
+        }
+    }
+
+    /**
+     * Member has been attached to a window, or added while attached
+     *
+     * @param view member view
+     */
+    void onViewAttached(@NonNull DecoView view) {
+        if (!mViews.contains(view)) {
+            mViews.add(view);
+        }
+    }
+
+    /**
+     * Member has been detached from its window, or removed while attached
+     *
+     * @param view member view
+     */
+    void onViewDetached(@NonNull DecoView view) {
+        mViews.remove(view);
+        mRequestedViews.remove(view);
+    }
+
+    /**
+     * Request the next frame of the group for a member. Called by the member, at most once per
+     * frame
+     *
+     * @param view view requesting the frame
+     */
+    void requestFrame(@NonNull DecoView view) {
+        mRequestedViews.add(view);
+        if (mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (mFrameCallback == null) {
+                mFrameCallback = new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        DecoAnimationGroup.this.doFrame(AnimationUtils.currentAnimationTimeMillis());
+                    }
+                };
+            }
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        } else {
+            mHandler.postDelayed(mFrameRunnable, FRAME_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Remove a frame requested by a member
+     *
+     * @param view view that requested the frame
+     */
+    void cancelFrame(@NonNull DecoView view) {
+        mRequestedViews.remove(view);
+    }
+
+    /**
+     * Step every member that requested this frame with the same frame time
+     *
+     * @param frameTime time of the frame in ms
+     */
+    private void doFrame(long frameTime) {
+        mFrameScheduled = false;
+        final ArrayList<DecoView> views = mRequestedViews;
+        mRequestedViews = mFrameViews;
+        mFrameViews = views;
+        for (int i = 0; i < views.size(); i++) {
+            views.get(i).onGroupFrame(frameTime);
+        }
+        views.clear();
+    }
+
+    /**
+     * Listener of the copies of an event added to every view, which notifies the listener of the
+     * original event once for the whole group
+     */
+    private static final class GroupEventListener implements DecoEvent.ExecuteEventListener {
+        private final DecoEvent mEvent;
+        /**
+         * Number of series animations started by the copies that have not yet ended
+         */
+        private int mAnimationCount;
+        private boolean mStarted;
+
+        GroupEventListener(@NonNull DecoEvent event) {
+            mEvent = event;
+        }
+
+        @Override
+        public void onEventStart(DecoEvent event) {
+            mAnimationCount++;
+            if (!mStarted) {
+                mStarted = true;
+                mEvent.getListener().onEventStart(mEvent);
+            }
+        }
+
+        @Override
+        public void onEventEnd(DecoEvent event) {
+            if (mAnimationCount > 0 && --mAnimationCount == 0) {
+                mEvent.getListener().onEventEnd(mEvent);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+/**
+ * Measurements of one frame drawn by a {@link DecoView}. Reported to the
+ * {@link DecoView.FrameMetricsListener} set with
+ * {@link DecoView#setFrameMetricsListener(DecoView.FrameMetricsListener, int)}.
+ * <p/>
+ * One instance is reused by the view for every frame reported, so values must be copied if they
+ * are required after the listener returns.
+ */
+@SuppressWarnings("unused")
+public class DecoFrameMetrics {
+    private long mFrameNumber;
+    private long mDrawDurationNanos;
+    private long[] mSeriesDrawNanos = new long[0];
+    private int mSeriesCount;
+    private int mActiveAnimations;
+    private int mLabelsDrawn;
+    private boolean mLabelLayoutUpdated;
+    private int mDroppedFrames;
+
+    DecoFrameMetrics() {
+    }
+
+    /**
+     * Number of frames drawn by the view since the listener was set, including those not sampled
+     *
+     * @return frame number
+     */
+    public long getFrameNumber() {
+        return mFrameNumber;
+    }
+
+    /**
+     * Time taken by {@link DecoView#onDraw(android.graphics.Canvas)} to issue the drawing for the
+     * frame. This is the time on the UI thread, not the time taken to render
+     *
+     * @return duration in ns
+     */
+    public long getDrawDurationNanos() {
+        return mDrawDurationNanos;
+    }
+
+    /**
+     * Number of series in the view when the frame was drawn
+     *
+     * @return series count
+     */
+    public int getSeriesCount() {
+        return mSeriesCount;
+    }
+
+    /**
+     * Time taken to draw one series. Series drawn from the static layer report 0
+     *
+     * @param index index of the series
+     * @return duration in ns
+     */
+    public long getSeriesDrawNanos(int index) {
+        if (index < 0 || index >= mSeriesCount) {
+            throw new IllegalArgumentException("Invalid index: Position out of range (Index: " + index + " Series Count: " + mSeriesCount + ")");
+        }
+        return mSeriesDrawNanos[index];
+    }
+
+    /**
+     * Number of series that were animating when the frame was drawn
+     *
+     * @return active animations
+     */
+    public int getActiveAnimations() {
+        return mActiveAnimations;
+    }
+
+    /**
+     * Number of labels drawn in the frame
+     *
+     * @return labels drawn
+     */
+    public int getLabelsDrawn() {
+        return mLabelsDrawn;
+    }
+
+    /**
+     * Was the position of the labels calculated again for the frame. The label layout is skipped
+     * when no label has moved or changed text since the previous frame
+     *
+     * @return true if the label layout pass was executed
+     */
+    public boolean isLabelLayoutUpdated() {
+        return mLabelLayoutUpdated;
+    }
+
+    /**
+     * Number of animation frames that were missed since the previous frame reported, calculated
+     * from the gap between animation frames while animating
+     *
+     * @return dropped frames
+     */
+    public int getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    void startFrame(long frameNumber, int seriesCount) {
+        mFrameNumber = frameNumber;
+        mSeriesCount = seriesCount;
+        if (mSeriesDrawNanos.length < seriesCount) {
+            mSeriesDrawNanos = new long[seriesCount];
+        }
+        for (int i = 0; i < seriesCount; i++) {
+            mSeriesDrawNanos[i] = 0;
+        }
+        mLabelsDrawn = 0;
+        mLabelLayoutUpdated = false;
+    }
+
+    void setSeriesDrawNanos(int index, long nanos) {
+        mSeriesDrawNanos[index] = nanos;
+    }
+
+    void setLabels(int labelsDrawn, boolean layoutUpdated) {
+        mLabelsDrawn = labelsDrawn;
+        mLabelLayoutUpdated = layoutUpdated;
+    }
+
+    void endFrame(long drawDurationNanos, int activeAnimations, int droppedFrames) {
+        mDrawDurationNanos = drawDurationNanos;
+        mActiveAnimations = activeAnimations;
+        mDroppedFrames = droppedFrames;
+    }
+}
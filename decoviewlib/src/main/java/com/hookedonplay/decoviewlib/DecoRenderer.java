@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.graphics.Canvas;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.hookedonplay.decoviewlib.charts.ChartSeries;
+import com.hookedonplay.decoviewlib.charts.EdgeDetail;
+import com.hookedonplay.decoviewlib.charts.FrameSnapshot;
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+import com.hookedonplay.decoviewlib.events.DecoEventManager;
+
+import java.util.ArrayList;
+
+/**
+ * Animates and draws a list of series onto any canvas, without a view. The same series and events
+ * used by {@link DecoView} are supported, drawn by the same {@link ChartSeries} classes.
+ * <p/>
+ * Used by {@link DecoTextureView} to draw on its own render thread. The renderer is not thread
+ * safe, all calls must be made on the same thread. As nothing depends on a view or surface the
+ * renderer can also be driven directly, for example drawing into a
+ * {@link com.hookedonplay.decoviewlib.util.RecordingCanvas}.
+ */
+@SuppressWarnings("unused")
+public class DecoRenderer implements DecoEventManager.ArcEventManagerListener {
+    private final ArrayList<ChartSeries> mChartSeries = new ArrayList<>();
+    private int mTotalAngle = 360;
+    private int mRotateAngle = SeriesListHelper.calcStartAngle(360, 0);
+    private float mDefaultLineWidth = 30;
+    private EdgeDetail.RenderMode mEdgeRenderMode = EdgeDetail.RenderMode.RENDER_CLIP_WHEN_REQUIRED;
+    private int mWidth;
+    private int mHeight;
+    private int mPaddingLeft;
+    private int mPaddingTop;
+    private int mPaddingRight;
+    private int mPaddingBottom;
+    private DecoView.VertGravity mVertGravity = DecoView.VertGravity.GRAVITY_VERTICAL_CENTER;
+    private DecoView.HorizGravity mHorizGravity = DecoView.HorizGravity.GRAVITY_HORIZONTAL_CENTER;
+    private RectF mArcBounds;
+    /**
+     * Frame drawn and the frame drawn before it, swapped on each draw so the label layout can be
+     * skipped when nothing has moved
+     */
+    private FrameSnapshot mFrame = new FrameSnapshot();
+    private FrameSnapshot mPreviousFrame = new FrameSnapshot();
+    private int mSeriesListVersion;
+    private FrameRequestListener mFrameRequestListener;
+    private final ChartSeries.FrameRequestListener mSeriesFrameRequestListener = new ChartSeries.FrameRequestListener() {
+        @Override
+        public void onFrameRequested(@NonNull ChartSeries chartSeries) {
+            requestFrame();
+        }
+    };
+
+    /**
+     * Add a series of data to the renderer
+     *
+     * @param seriesItem item attributes
+     * @return index of the series
+     */
+    public int addSeries(@NonNull SeriesItem seriesItem) {
+        if (seriesItem.getLineWidth() < 0) {
+            seriesItem.setLineWidth(mDefaultLineWidth);
+        }
+        final ChartSeries chartSeries = SeriesListHelper.createChartSeries(seriesItem, mTotalAngle, mRotateAngle,
+                mHorizGravity, mVertGravity);
+        chartSeries.setFrameRequestListener(mSeriesFrameRequestListener);
+        chartSeries.setEdgeRenderMode(mEdgeRenderMode);
+        mChartSeries.add(chartSeries);
+        mSeriesListVersion++;
+        recalcLayout();
+        requestFrame();
+        return mChartSeries.size() - 1;
+    }
+
+    /**
+     * Remove all series and stop their animations
+     */
+    public void deleteAll() {
+        for (int i = 0; i < mChartSeries.size(); i++) {
+            final ChartSeries chartSeries = mChartSeries.get(i);
+            chartSeries.setFrameRequestListener(null);
+            chartSeries.cancelAnimation();
+        }
+        mChartSeries.clear();
+        mSeriesListVersion++;
+        requestFrame();
+    }
+
+    /**
+     * Number of series in the renderer
+     *
+     * @return series count
+     */
+    public int getSeriesCount() {
+        return mChartSeries.size();
+    }
+
+    /**
+     * Retrieve a series by index
+     *
+     * @param index index of the series
+     * @return series, or null if the index is invalid
+     */
+    @Nullable
+    public ChartSeries getChartSeries(int index) {
+        if (index < 0 || index >= mChartSeries.size()) {
+            return null;
+        }
+        return mChartSeries.get(index);
+    }
+
+    /**
+     * Alter the total degrees of the chart and apply a rotation angle to change the start
+     * position, see {@link DecoView#configureAngles(int, int)}
+     *
+     * @param totalAngle  Total angle of the chart in degrees
+     * @param rotateAngle Number of degrees to rotate the start position
+     */
+    public void configureAngles(int totalAngle, int rotateAngle) {
+        if (totalAngle <= 0) {
+            throw new IllegalArgumentException("Total angle of the arc must be > 0");
+        }
+        mTotalAngle = totalAngle;
+        mRotateAngle = SeriesListHelper.calcStartAngle(totalAngle, rotateAngle);
+        for (int i = 0; i < mChartSeries.size(); i++) {
+            mChartSeries.get(i).setupView(mTotalAngle, mRotateAngle);
+        }
+        requestFrame();
+    }
+
+    /**
+     * Set the line width used by series added without a line width
+     *
+     * @param lineWidth width in pixels
+     */
+    public void setDefaultLineWidth(float lineWidth) {
+        mDefaultLineWidth = lineWidth;
+    }
+
+    /**
+     * Set the method used to draw {@link EdgeDetail} for all series, see
+     * {@link DecoView#setEdgeRenderMode(EdgeDetail.RenderMode)}
+     *
+     * @param renderMode method used to draw edges
+     */
+    public void setEdgeRenderMode(@NonNull EdgeDetail.RenderMode renderMode) {
+        mEdgeRenderMode = renderMode;
+        for (int i = 0; i < mChartSeries.size(); i++) {
+            mChartSeries.get(i).setEdgeRenderMode(renderMode);
+        }
+        requestFrame();
+    }
+
+    /**
+     * Set the size of the canvas the renderer draws on
+     *
+     * @param width  width in pixels
+     * @param height height in pixels
+     */
+    public void setSize(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+        recalcLayout();
+    }
+
+    /**
+     * Set the space to leave on each edge of the canvas, as the padding of a {@link DecoView}
+     *
+     * @param left   left padding in pixels
+     * @param top    top padding in pixels
+     * @param right  right padding in pixels
+     * @param bottom bottom padding in pixels
+     */
+    public void setPadding(int left, int top, int right, int bottom) {
+        mPaddingLeft = left;
+        mPaddingTop = top;
+        mPaddingRight = right;
+        mPaddingBottom = bottom;
+        recalcLayout();
+        requestFrame();
+    }
+
+    /**
+     * Set the vertical gravity of the series, see {@link DecoView#setVertGravity(DecoView.VertGravity)}.
+     * Line series added before this call keep their previous gravity
+     *
+     * @param vertGravity vertical gravity
+     */
+    public void setVertGravity(@NonNull DecoView.VertGravity vertGravity) {
+        mVertGravity = vertGravity;
+        recalcLayout();
+        requestFrame();
+    }
+
+    /**
+     * Set the horizontal gravity of the series, see
+     * {@link DecoView#setHorizGravity(DecoView.HorizGravity)}. Line series added before this call
+     * keep their previous gravity
+     *
+     * @param horizGravity horizontal gravity
+     */
+    public void setHorizGravity(@NonNull DecoView.HorizGravity horizGravity) {
+        mHorizGravity = horizGravity;
+        recalcLayout();
+        requestFrame();
+    }
+
+    /**
+     * Bounds the series are drawn in, or null until the size has been set
+     *
+     * @return bounds of the series
+     */
+    @Nullable
+    RectF getArcBounds() {
+        return mArcBounds;
+    }
+
+    /**
+     * Calculate the bounds of the series with the same rules as {@link DecoView}, see
+     * {@link SeriesListHelper#calcArcBounds}
+     */
+    private void recalcLayout() {
+        if (mWidth <= 0 || mHeight <= 0) {
+            return;
+        }
+
+        float widest = 0;
+        for (int i = 0; i < mChartSeries.size(); i++) {
+            widest = Math.max(mChartSeries.get(i).getSeriesItem().getLineWidth(), widest);
+        }
+
+        mArcBounds = SeriesListHelper.calcArcBounds(mWidth, mHeight, widest,
+                mPaddingLeft, mPaddingTop, mPaddingRight, mPaddingBottom, mHorizGravity, mVertGravity);
+    }
+
+    /**
+     * Execute an event immediately. Events with a delay are scheduled by a
+     * {@link DecoEventManager} using this renderer as its listener
+     *
+     * @param event Event to be executed
+     */
+    @Override
+    public void onExecuteEventStart(@NonNull DecoEvent event) {
+        SeriesListHelper.executeMove(mChartSeries, event);
+        SeriesListHelper.executeReveal(mChartSeries, event);
+        SeriesListHelper.executeEffect(mChartSeries, event);
+    }
+
+    /**
+     * Advance the animation of every series to the given frame time
+     *
+     * @param frameTime time of the frame in ms
+     * @return true if one or more series are still animating
+     */
+    public boolean onAnimationFrame(long frameTime) {
+        boolean animating = false;
+        for (int i = 0; i < mChartSeries.size(); i++) {
+            animating |= mChartSeries.get(i).onAnimationFrame(frameTime);
+        }
+        return animating;
+    }
+
+    /**
+     * Draw all series and labels in their current position. The canvas is not cleared
+     *
+     * @param canvas Canvas to draw onto
+     */
+    public void draw(@NonNull Canvas canvas) {
+        if (mArcBounds == null || mArcBounds.isEmpty() || mChartSeries.isEmpty()) {
+            return;
+        }
+
+        final FrameSnapshot frame = mPreviousFrame;
+        mPreviousFrame = mFrame;
+        mFrame = frame;
+
+        frame.capture(mChartSeries, mSeriesListVersion, mWidth, mHeight, mArcBounds, mTotalAngle, mRotateAngle);
+        frame.prepare(mPreviousFrame);
+        for (int i = 0; i < mChartSeries.size(); i++) {
+            frame.apply(i);
+            mChartSeries.get(i).draw(canvas, mArcBounds);
+        }
+        frame.drawLabels(canvas);
+    }
+
+    /**
+     * Set the listener used to request frames while series are animating
+     *
+     * @param listener Listener to request frames from, or null to remove
+     */
+    public void setFrameRequestListener(@Nullable FrameRequestListener listener) {
+        mFrameRequestListener = listener;
+    }
+
+    private void requestFrame() {
+        if (mFrameRequestListener != null) {
+            mFrameRequestListener.onFrameRequested(this);
+        }
+    }
+
+    /**
+     * Callback interface used by the renderer to request that the owner draws a frame and calls
+     * {@link #onAnimationFrame(long)}
+     */
+    public interface FrameRequestListener {
+        void onFrameRequested(@NonNull DecoRenderer renderer);
+    }
+}
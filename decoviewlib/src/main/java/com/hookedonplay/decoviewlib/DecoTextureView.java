@@ -0,0 +1,619 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.TextureView;
+import android.view.animation.AnimationUtils;
+
+import com.hookedonplay.decoviewlib.charts.EdgeDetail;
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+import com.hookedonplay.decoviewlib.events.DecoEventManager;
+import com.hookedonplay.decoviewlib.util.GenericFunctions;
+
+import java.util.ArrayList;
+
+/**
+ * Surface backed alternative to {@link DecoView} that animates and draws on its own render thread.
+ * <p/>
+ * A DecoView draws on the UI thread, so a view that is always animating competes with layout and
+ * input of the rest of the UI on every frame. This view draws the same {@link SeriesItem} and
+ * {@link DecoEvent} model with a {@link DecoRenderer} on a dedicated thread, paced by the display
+ * vsync on API 16 and above.
+ * <p/>
+ * All public methods may be called from any thread, the work is posted to the render thread in
+ * the order it is submitted. Listeners of series and events are called on the render thread and
+ * must post any changes to views to the UI thread. Views linked to an event are updated on the UI
+ * thread automatically.
+ * <p/>
+ * The render thread is started when the view is attached to a window and stopped when it is
+ * detached. Work submitted while detached is held until the view is attached again. Series are
+ * kept while detached but pending events are discarded, as for DecoView.
+ * <p/>
+ * Requires API 14 as it is based on {@link TextureView}.
+ */
+@TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+@SuppressWarnings("unused")
+public class DecoTextureView extends TextureView implements TextureView.SurfaceTextureListener {
+    /**
+     * Frame interval used to pace frames where {@link Choreographer} is not available
+     */
+    static final private long FRAME_INTERVAL_MS = 16;
+    static final private SeriesItem[] NO_SERIES_ITEMS = new SeriesItem[0];
+
+    /**
+     * Renderer holding all series. Only accessed on the render thread, while holding its lock in
+     * case a render thread that has been stopped is still finishing its last task
+     */
+    private final DecoRenderer mRenderer = new DecoRenderer();
+    /**
+     * Render thread executing the current work, only set while that thread holds the lock of the
+     * renderer. Work finds its thread here rather than by casting the current thread, so it also
+     * runs when the looper of the render thread is driven from another thread
+     */
+    private RenderThread mActiveThread;
+    /**
+     * Copies of the attributes of every series, replaced by the render thread whenever a series
+     * is added or changed so they can be read from any thread without waiting for a frame
+     */
+    private volatile SeriesItem[] mSeriesItems = NO_SERIES_ITEMS;
+    /**
+     * Guards {@link #mSurfaceAvailable} and is held while drawing, so the surface is not destroyed
+     * during a frame
+     */
+    private final Object mSurfaceLock = new Object();
+    private boolean mSurfaceAvailable;
+
+    /**
+     * Thread running while attached to a window, null while detached. Guarded by this view
+     */
+    private RenderThread mRenderThread;
+    /**
+     * Work submitted while detached, posted in order once a render thread is started. Guarded by
+     * this view
+     */
+    private final ArrayList<Runnable> mPendingWork = new ArrayList<>();
+    /**
+     * Number of series once all submitted work has been executed, used to return the index of a
+     * series before it has been added on the render thread
+     */
+    private int mSeriesCount;
+    /**
+     * Padding last passed to the renderer, only accessed on the UI thread
+     */
+    private final Rect mRendererPadding = new Rect();
+
+    public DecoTextureView(Context context) {
+        super(context);
+        initView();
+    }
+
+    public DecoTextureView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        initView();
+    }
+
+    public DecoTextureView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initView();
+    }
+
+    private void initView() {
+        GenericFunctions.initialize(getContext());
+        setOpaque(false);
+        setSurfaceTextureListener(this);
+        mRenderer.setFrameRequestListener(new DecoRenderer.FrameRequestListener() {
+            @Override
+            public void onFrameRequested(@NonNull DecoRenderer renderer) {
+                final RenderThread thread = mActiveThread;
+                if (thread != null) {
+                    thread.scheduleFrame();
+                }
+            }
+        });
+    }
+
+    /**
+     * Add a series of data to the view.
+     * <p/>
+     * The series is added on the render thread, so it may not exist yet when this returns. The
+     * index returned is the index the series will have once the work submitted before it has
+     * executed. As all work is executed in the order it is submitted, the index can be used in
+     * events added after this call. The index is only valid until {@link #deleteAll()} is called,
+     * after which indices start from 0 again.
+     *
+     * @param seriesItem item attributes
+     * @return index the series will have on the render thread
+     */
+    public int addSeries(@NonNull final SeriesItem seriesItem) {
+        final int index;
+        synchronized (this) {
+            index = mSeriesCount++;
+        }
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                final int added = mRenderer.addSeries(seriesItem);
+                final SeriesItem[] seriesItems = new SeriesItem[added + 1];
+                System.arraycopy(mSeriesItems, 0, seriesItems, 0, added);
+                seriesItems[added] = new SeriesItem.Builder(seriesItem).build();
+                mSeriesItems = seriesItems;
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Number of series once all work submitted so far has been executed on the render thread.
+     * May be called from any thread
+     *
+     * @return number of series
+     */
+    public synchronized int getSeriesCount() {
+        return mSeriesCount;
+    }
+
+    /**
+     * Retrieve a copy of the attributes of a series that has been added on the render thread. May
+     * be called from any thread and never waits for a frame being drawn. The copy reflects the
+     * series when it was added or last changed by an event, changes to the copy are not applied to
+     * the series
+     *
+     * @param index index of the series returned by {@link #addSeries(SeriesItem)}
+     * @return copy of the series item, or null if the series has not been added on the render
+     * thread yet
+     */
+    @Nullable
+    public SeriesItem getSeriesItem(int index) {
+        final SeriesItem[] seriesItems = mSeriesItems;
+        return index >= 0 && index < seriesItems.length ? seriesItems[index] : null;
+    }
+
+    /**
+     * Remove all series and discard any pending events
+     */
+    public void deleteAll() {
+        synchronized (this) {
+            mSeriesCount = 0;
+        }
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                currentRenderThread().getEventManager().resetEvents();
+                mRenderer.deleteAll();
+                mSeriesItems = NO_SERIES_ITEMS;
+            }
+        });
+    }
+
+    /**
+     * Add an event to be executed on the render thread, after any delay set on the event
+     *
+     * @param event Event to be processed
+     */
+    public void addEvent(@NonNull final DecoEvent event) {
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                currentRenderThread().getEventManager().add(event);
+            }
+        });
+    }
+
+    /**
+     * Alter the total degrees of the view and apply a rotation angle to change the start position,
+     * see {@link DecoView#configureAngles(int, int)}
+     *
+     * @param totalAngle  Total angle of the view in degrees
+     * @param rotateAngle Number of degrees to rotate the start position
+     */
+    public void configureAngles(final int totalAngle, final int rotateAngle) {
+        if (totalAngle <= 0) {
+            throw new IllegalArgumentException("Total angle of the arc must be > 0");
+        }
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.configureAngles(totalAngle, rotateAngle);
+            }
+        });
+    }
+
+    /**
+     * Set the method used to draw {@link EdgeDetail} for all series, see
+     * {@link DecoView#setEdgeRenderMode(EdgeDetail.RenderMode)}
+     *
+     * @param renderMode method used to draw edges
+     */
+    public void setEdgeRenderMode(@NonNull final EdgeDetail.RenderMode renderMode) {
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.setEdgeRenderMode(renderMode);
+            }
+        });
+    }
+
+    /**
+     * Set the vertical gravity of the series, see {@link DecoView#setVertGravity(DecoView.VertGravity)}
+     *
+     * @param vertGravity vertical gravity
+     */
+    public void setVertGravity(@NonNull final DecoView.VertGravity vertGravity) {
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.setVertGravity(vertGravity);
+            }
+        });
+    }
+
+    /**
+     * Set the horizontal gravity of the series, see
+     * {@link DecoView#setHorizGravity(DecoView.HorizGravity)}
+     *
+     * @param horizGravity horizontal gravity
+     */
+    public void setHorizGravity(@NonNull final DecoView.HorizGravity horizGravity) {
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.setHorizGravity(horizGravity);
+            }
+        });
+    }
+
+    /**
+     * Pass the padding of the view to the renderer when it has changed, so the series are laid out
+     * the same as in a {@link DecoView}
+     */
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        final int paddingLeft = getPaddingLeft();
+        final int paddingTop = getPaddingTop();
+        final int paddingRight = getPaddingRight();
+        final int paddingBottom = getPaddingBottom();
+        if (mRendererPadding.left == paddingLeft && mRendererPadding.top == paddingTop &&
+                mRendererPadding.right == paddingRight && mRendererPadding.bottom == paddingBottom) {
+            return;
+        }
+        mRendererPadding.set(paddingLeft, paddingTop, paddingRight, paddingBottom);
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.setPadding(paddingLeft, paddingTop, paddingRight, paddingBottom);
+            }
+        });
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, final int width, final int height) {
+        synchronized (mSurfaceLock) {
+            mSurfaceAvailable = true;
+        }
+        onSurfaceSizeChanged(width, height);
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        onSurfaceSizeChanged(width, height);
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        // Waits for any frame being drawn to complete
+        synchronized (mSurfaceLock) {
+            mSurfaceAvailable = false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+    }
+
+    private void onSurfaceSizeChanged(final int width, final int height) {
+        postToRenderThread(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.setSize(width, height);
+                currentRenderThread().scheduleFrame();
+            }
+        });
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        startRenderThread();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        stopRenderThread();
+    }
+
+    /**
+     * Execute work on the render thread, or hold it until the thread is started if detached
+     *
+     * @param runnable work to execute
+     */
+    private void postToRenderThread(@NonNull final Runnable runnable) {
+        synchronized (this) {
+            if (mRenderThread == null) {
+                mPendingWork.add(runnable);
+            } else {
+                mRenderThread.post(runnable);
+            }
+        }
+    }
+
+    /**
+     * Start a new render thread and post the work held while detached
+     */
+    private void startRenderThread() {
+        synchronized (this) {
+            if (mRenderThread != null) {
+                return;
+            }
+            mRenderThread = new RenderThread();
+            mRenderThread.start();
+            mRenderThread.prepareHandler();
+            for (int i = 0; i < mPendingWork.size(); i++) {
+                mRenderThread.post(mPendingWork.get(i));
+            }
+            mPendingWork.clear();
+        }
+    }
+
+    /**
+     * Stop the render thread once it has executed all work already submitted. Pending events are
+     * discarded. A thread started for the next attach has its own state, so it is not affected by
+     * the old thread finishing
+     */
+    private void stopRenderThread() {
+        final RenderThread thread;
+        synchronized (this) {
+            thread = mRenderThread;
+            mRenderThread = null;
+        }
+        if (thread != null) {
+            thread.quitWhenDone();
+        }
+    }
+
+    /**
+     * Render thread executing the current work. Must be called by work executed on a render thread
+     *
+     * @return render thread
+     */
+    @NonNull
+    private RenderThread currentRenderThread() {
+        if (mActiveThread == null) {
+            throw new IllegalStateException("Must be called by work executed on a render thread");
+        }
+        return mActiveThread;
+    }
+
+    /**
+     * Replace the copies of the attributes of every series after an event may have changed them.
+     * Must be called on a render thread holding the lock of the renderer
+     */
+    private void updateSeriesItems() {
+        final SeriesItem[] seriesItems = new SeriesItem[mRenderer.getSeriesCount()];
+        for (int i = 0; i < seriesItems.length; i++) {
+            seriesItems[i] = new SeriesItem.Builder(mRenderer.getChartSeries(i).getSeriesItem()).build();
+        }
+        mSeriesItems = seriesItems;
+    }
+
+    /**
+     * Looper of the render thread, used by tests to execute the work posted to the thread
+     *
+     * @return looper, or null while detached
+     */
+    @Nullable
+    synchronized Looper getRenderLooper() {
+        return mRenderThread != null ? mRenderThread.getLooper() : null;
+    }
+
+    /**
+     * Advance all animations and draw the frame. Must be called on a render thread holding the lock
+     * of the renderer
+     *
+     * @param thread render thread drawing the frame
+     */
+    private void doFrame(@NonNull RenderThread thread) {
+        if (mRenderer.onAnimationFrame(AnimationUtils.currentAnimationTimeMillis())) {
+            thread.scheduleFrame();
+        }
+
+        synchronized (mSurfaceLock) {
+            if (!mSurfaceAvailable) {
+                return;
+            }
+            final Canvas canvas = lockCanvas();
+            if (canvas == null) {
+                return;
+            }
+            try {
+                canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                mRenderer.draw(canvas);
+            } finally {
+                unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+
+    /**
+     * Thread animating and drawing the renderer between one attach and detach of the view. The
+     * event manager and frame scheduling state belong to the thread, so a thread that is still
+     * finishing after the view has been detached and attached again never changes the state of
+     * its replacement. The renderer is shared and only accessed holding its lock.
+     */
+    private final class RenderThread extends HandlerThread implements DecoEventManager.ArcEventManagerListener {
+        private Handler mHandler;
+        private DecoEventManager mEventManager;
+        private boolean mFrameScheduled;
+        private boolean mStopped;
+        private Choreographer.FrameCallback mFrameCallback;
+        private final Runnable mFrameRunnable = new Runnable() {
+            @Override
+            public void run() {
+                onFrame();
+            }
+        };
+
+        RenderThread() {
+            super(DecoTextureView.class.getSimpleName());
+        }
+
+        /**
+         * Create the handler used to post work, once the thread has been started
+         */
+        void prepareHandler() {
+            mHandler = new Handler(getLooper());
+        }
+
+        /**
+         * Execute work on this thread holding the lock of the renderer
+         *
+         * @param runnable work to execute
+         */
+        void post(@NonNull final Runnable runnable) {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (mRenderer) {
+                        final RenderThread previous = mActiveThread;
+                        mActiveThread = RenderThread.this;
+                        try {
+                            runnable.run();
+                        } finally {
+                            mActiveThread = previous;
+                        }
+                    }
+                }
+            });
+        }
+
+        /**
+         * Discard pending events and quit once all work already posted has executed
+         */
+        void quitWhenDone() {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (mRenderer) {
+                        mStopped = true;
+                        if (mEventManager != null) {
+                            mEventManager.resetEvents();
+                        }
+                    }
+                    quit();
+                }
+            });
+        }
+
+        /**
+         * Event manager executing events on this thread. Must be called on this thread
+         *
+         * @return event manager
+         */
+        @NonNull
+        DecoEventManager getEventManager() {
+            if (mEventManager == null) {
+                mEventManager = new DecoEventManager(this, getLooper());
+            }
+            return mEventManager;
+        }
+
+        @Override
+        public void onExecuteEventStart(@NonNull DecoEvent event) {
+            synchronized (mRenderer) {
+                if (mStopped) {
+                    return;
+                }
+                final RenderThread previous = mActiveThread;
+                mActiveThread = this;
+                try {
+                    mRenderer.onExecuteEventStart(event);
+                    if (event.isColorSet()) {
+                        updateSeriesItems();
+                    }
+                } finally {
+                    mActiveThread = previous;
+                }
+            }
+        }
+
+        /**
+         * Request a frame on the next vsync of this thread. Must be called on this thread
+         */
+        void scheduleFrame() {
+            if (mFrameScheduled || mStopped) {
+                return;
+            }
+            mFrameScheduled = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                if (mFrameCallback == null) {
+                    mFrameCallback = new Choreographer.FrameCallback() {
+                        @Override
+                        public void doFrame(long frameTimeNanos) {
+                            onFrame();
+                        }
+                    };
+                }
+                Choreographer.getInstance().postFrameCallback(mFrameCallback);
+            } else {
+                mHandler.postDelayed(mFrameRunnable, FRAME_INTERVAL_MS);
+            }
+        }
+
+        private void onFrame() {
+            synchronized (mRenderer) {
+                mFrameScheduled = false;
+                if (mStopped) {
+                    return;
+                }
+                final RenderThread previous = mActiveThread;
+                mActiveThread = this;
+                try {
+                    doFrame(this);
+                } finally {
+                    mActiveThread = previous;
+                }
+            }
+        }
+    }
+}
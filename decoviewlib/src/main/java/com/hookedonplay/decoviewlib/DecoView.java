@@ -17,32 +17,44 @@ package com.hookedonplay.decoviewlib;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Path;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.os.Build;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
-import android.util.Log;
+import android.util.SparseArray;
 import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.animation.AnimationUtils;
 import com.hookedonplay.decoviewlib.charts.ChartSeries;
-import com.hookedonplay.decoviewlib.charts.DecoDrawEffect;
-import com.hookedonplay.decoviewlib.charts.LineArcSeries;
-import com.hookedonplay.decoviewlib.charts.LineSeries;
-import com.hookedonplay.decoviewlib.charts.PieSeries;
+import com.hookedonplay.decoviewlib.charts.DenseRingChart;
+import com.hookedonplay.decoviewlib.charts.EdgeDetail;
+import com.hookedonplay.decoviewlib.charts.FrameSnapshot;
 import com.hookedonplay.decoviewlib.charts.SeriesItem;
 import com.hookedonplay.decoviewlib.events.DecoEvent;
 import com.hookedonplay.decoviewlib.events.DecoEventManager;
 import com.hookedonplay.decoviewlib.util.GenericFunctions;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Android Custom View for displaying animated Arc based charts
  */
 @SuppressWarnings("unused")
 public class DecoView extends View implements DecoEventManager.ArcEventManagerListener {
+    /**
+     * Nominal interval between animation frames, used to detect dropped frames
+     */
+    static final private float FRAME_INTERVAL_MS = 1000f / 60f;
+
     private final String TAG = getClass().getSimpleName();
     /**
      * Gravity settings
@@ -54,6 +66,20 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
      * and then 1 or more for the data being presented
      */
     private ArrayList<ChartSeries> mChartSeries;
+    /**
+     * Optional chart of many rings stored in primitive arrays, drawn beneath the series
+     */
+    private DenseRingChart mDenseRingChart;
+    /**
+     * Series keyed by their stable handle. Handles are allocated from {@link #mNextHandle}, which
+     * is never reset, so a removed handle can not refer to a different series
+     */
+    private final SparseArray<ChartSeries> mSeriesByHandle = new SparseArray<>();
+    private int mNextHandle;
+    /**
+     * Incremented every time series are added, removed, replaced or moved
+     */
+    private int mSeriesListVersion;
     /**
      * Width/Height of the view
      */
@@ -84,7 +110,171 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
      * {@link DecoView}
      */
     private DecoEventManager mDecoEventManager;
-    private float[] mMeasureViewableArea;
+    /**
+     * Method used by all series to draw {@link EdgeDetail}
+     */
+    private EdgeDetail.RenderMode mEdgeRenderMode = EdgeDetail.RenderMode.RENDER_CLIP_WHEN_REQUIRED;
+    /**
+     * Software layer has been set by {@link #enableCompatibilityMode()} to support clipPath
+     */
+    private boolean mSoftwareLayerForClipping;
+    /**
+     * Software layer has been set by {@link #disableHardwareAccelerationForDecoView()}
+     */
+    private boolean mSoftwareLayerRequested;
+    /**
+     * True when a frame has been posted to advance the animation of the series, or requested from
+     * the {@link DecoAnimationGroup} of the view
+     */
+    private boolean mFrameScheduled;
+    /**
+     * Frame clock for all series in this view. Rather than each series running its own animator
+     * and invalidating the view, one callback is posted per frame which advances the animation
+     * of every series in one pass and then invalidates the view once
+     */
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mFrameScheduled = false;
+            onAnimationFrame(AnimationUtils.currentAnimationTimeMillis());
+        }
+    };
+    /**
+     * Group sharing its frame clock with this view, null if the view runs its own frames
+     */
+    private DecoAnimationGroup mAnimationGroup;
+    /**
+     * True while the view is attached to a window
+     */
+    private boolean mAttached;
+    /**
+     * True when animation is suspended as the view is detached, hidden or completely out of view.
+     * No frames are requested while suspended. Only updated from attach, visibility, scroll and
+     * layout callbacks so the frame path only reads the field. The view starts suspended as it is
+     * not attached
+     */
+    private boolean mAnimationSuspended = true;
+    /**
+     * A frame was requested, or removed, while suspended and is posted when animation resumes
+     */
+    private boolean mFrameDeferred;
+    private final Rect mVisibleRect = new Rect();
+    /**
+     * Detects the view scrolling or being laid out back into view while animation is suspended
+     */
+    private final ViewTreeObserver.OnScrollChangedListener mScrollChangedListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            onViewPositionChanged();
+        }
+    };
+    private final ViewTreeObserver.OnGlobalLayoutListener mGlobalLayoutListener = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            onViewPositionChanged();
+        }
+    };
+    /**
+     * True if the last frame was drawn on a canvas that limits drawing to the dirty rect passed to
+     * {@link #invalidate(int, int, int, int)}. This is every software canvas, and hardware canvases
+     * before API 21. From API 21 hardware rendering redraws the complete view regardless
+     */
+    private boolean mDirtyRectUsed;
+    /**
+     * Area covered by all labels when last drawn
+     */
+    private final RectF mLabelDrawBounds = new RectF();
+    /**
+     * Frames of geometry and labels prepared for drawing, see {@link FrameSnapshot}. The frame
+     * being drawn is only accessed on the UI thread, all other frames are guarded by
+     * {@link #mFrameLock} as they may be prepared on {@link #mFrameExecutor}
+     */
+    private final Object mFrameLock = new Object();
+    private FrameSnapshot mDrawnFrame;
+    private FrameSnapshot mPreparedFrame;
+    private FrameSnapshot mPreparingFrame;
+    private FrameSnapshot mLastPreparedFrame;
+    private final ArrayList<FrameSnapshot> mSpareFrames = new ArrayList<>();
+    /**
+     * The frame drawn was prepared since the last draw
+     */
+    private boolean mDrawnFrameNew;
+    /**
+     * Executor used to prepare frames off the UI thread, null to prepare on the UI thread
+     */
+    private Executor mFrameExecutor;
+    private final Runnable mPrepareRunnable = new Runnable() {
+        @Override
+        public void run() {
+            final FrameSnapshot frame;
+            final FrameSnapshot previous;
+            synchronized (mFrameLock) {
+                frame = mPreparingFrame;
+                previous = mLastPreparedFrame;
+            }
+            frame.prepare(previous);
+            synchronized (mFrameLock) {
+                mLastPreparedFrame = frame;
+                mPreparedFrame = frame;
+                mPreparingFrame = null;
+                mFrameLock.notifyAll();
+            }
+            ViewCompat.postInvalidateOnAnimation(DecoView.this);
+        }
+    };
+    /**
+     * Area of the view that needs to be redrawn for the current frame
+     */
+    private final RectF mDirtyBounds = new RectF();
+    /**
+     * Cache the series that are not animating into a bitmap, see {@link #setStaticLayerEnabled(boolean)}
+     */
+    private boolean mStaticLayerEnabled;
+    /**
+     * Bitmap containing the drawing of the first {@link #mStaticLayerCount} series, and the
+     * canvas used to draw into it
+     */
+    private Bitmap mStaticLayer;
+    private Canvas mStaticLayerCanvas;
+    private int mStaticLayerCount;
+    private final RectF mStaticLayerBounds = new RectF();
+    private int mStaticLayerListVersion;
+    /**
+     * Listener for frame measurements, null when disabled
+     */
+    private FrameMetricsListener mFrameMetricsListener;
+    private DecoFrameMetrics mFrameMetrics;
+    private int mFrameMetricsSampleInterval = 1;
+    private long mFrameCount;
+    /**
+     * Time of the previous animation frame, -1 if the previous frame was not animating
+     */
+    private long mLastAnimationFrameTime = -1;
+    private int mDroppedFrames;
+    /**
+     * Number of series animating after the last animation frame
+     */
+    private int mActiveAnimations;
+    /**
+     * Shared by all series to request a frame when an animation is started or state changes
+     */
+    private final ChartSeries.FrameRequestListener mFrameRequestListener = new ChartSeries.FrameRequestListener() {
+        @Override
+        public void onFrameRequested(@NonNull ChartSeries chartSeries) {
+            scheduleFrame();
+        }
+    };
+    private final DenseRingChart.FrameRequestListener mDenseFrameRequestListener = new DenseRingChart.FrameRequestListener() {
+        @Override
+        public void onFrameRequested(@NonNull DenseRingChart chart) {
+            scheduleFrame();
+        }
+
+        @Override
+        public void onInvalidateRequested(@NonNull DenseRingChart chart) {
+            invalidate();
+        }
+    };
 
     public DecoView(Context context) {
         super(context);
@@ -131,16 +321,8 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
         if (totalAngle <= 0) {
             throw new IllegalArgumentException("Total angle of the arc must be > 0");
         }
-        final int circleStartPosition = 270;
-        final int arcStartPosition = 90;
-        final int degreesInCircle = 360;
-
         mTotalAngle = totalAngle;
-        mRotateAngle = (circleStartPosition + rotateAngle) % degreesInCircle;
-
-        if (mTotalAngle < degreesInCircle) {
-            mRotateAngle = ((arcStartPosition + (degreesInCircle - totalAngle) / 2) + rotateAngle) % degreesInCircle;
-        }
+        mRotateAngle = SeriesListHelper.calcStartAngle(totalAngle, rotateAngle);
 
         if (mChartSeries != null) {
             for (ChartSeries chartSeries : mChartSeries) {
@@ -176,6 +358,28 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
         return mChartSeries == null || mChartSeries.isEmpty();
     }
 
+    /**
+     * Set a chart of many rings to be drawn beneath the series of this view. A
+     * {@link DenseRingChart} stores its rings in primitive arrays and draws them in a single loop,
+     * so it is suited to charts with hundreds of thin rings where a {@link ChartSeries} per ring
+     * would be too costly
+     *
+     * @param chart chart to draw, or null to remove
+     */
+    public void setDenseRingChart(@Nullable DenseRingChart chart) {
+        if (mDenseRingChart != null) {
+            mDenseRingChart.setFrameRequestListener(null);
+        }
+        mDenseRingChart = chart;
+        if (chart != null) {
+            chart.setFrameRequestListener(mDenseFrameRequestListener);
+            if (chart.isAnimating()) {
+                scheduleFrame();
+            }
+        }
+        invalidate();
+    }
+
     /**
      * Add a new item to the ArcView. An ArcView may have any number of arcs
      *
@@ -187,47 +391,207 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
             mChartSeries = new ArrayList<>();
         }
 
-        seriesItem.addArcSeriesItemListener(new SeriesItem.SeriesItemListener() {
+        mChartSeries.add(createChartSeriesWithHandle(seriesItem));
 
-            @Override
-            public void onSeriesItemAnimationProgress(float percentComplete, float currentPosition) {
-                invalidate();
-            }
+        recalcLayout();
+        return mChartSeries.size() - 1;
+    }
 
-            @Override
-            public void onSeriesItemDisplayProgress(float percentComplete) {
-                invalidate();
-            }
-        });
+    /**
+     * Add many items to the view at once. This is the same as calling {@link #addSeries(SeriesItem)}
+     * for each item, but the layout of the view is only calculated once after all series have been
+     * created
+     *
+     * @param seriesItems items to add, in drawing order
+     * @return index of the first item added, or -1 if the list is empty
+     */
+    public int addSeries(@NonNull List<SeriesItem> seriesItems) {
+        if (seriesItems.isEmpty()) {
+            return -1;
+        }
+        if (mChartSeries == null) {
+            mChartSeries = new ArrayList<>(seriesItems.size());
+        } else {
+            mChartSeries.ensureCapacity(mChartSeries.size() + seriesItems.size());
+        }
 
+        final int first = mChartSeries.size();
+        for (int i = 0; i < seriesItems.size(); i++) {
+            mChartSeries.add(createChartSeriesWithHandle(seriesItems.get(i)));
+        }
+
+        recalcLayout();
+        return first;
+    }
+
+    /**
+     * Create the {@link ChartSeries} used to draw a {@link SeriesItem}
+     *
+     * @param seriesItem item attributes
+     * @return new series
+     */
+    @NonNull
+    private ChartSeries createChartSeries(@NonNull SeriesItem seriesItem) {
         if (seriesItem.getLineWidth() < 0) {
             seriesItem.setLineWidth(mDefaultLineWidth);
         }
 
-        ChartSeries chartSeries;
-        switch (seriesItem.getChartStyle()) {
-            case STYLE_DONUT:
-                chartSeries = new LineArcSeries(seriesItem, mTotalAngle, mRotateAngle);
-                break;
-            case STYLE_PIE:
-                chartSeries = new PieSeries(seriesItem, mTotalAngle, mRotateAngle);
-                break;
-            case STYLE_LINE_HORIZONTAL:
-            case STYLE_LINE_VERTICAL:
-                Log.w(TAG, "STYLE_LINE_* is currently experimental");
-                LineSeries lineSeries = new LineSeries(seriesItem, mTotalAngle, mRotateAngle);
-                lineSeries.setHorizGravity(mHorizGravity);
-                lineSeries.setVertGravity(mVertGravity);
-                chartSeries = lineSeries;
-                break;
-            default:
-                throw new IllegalStateException("Chart Style not implemented");
-        }
-        mChartSeries.add(mChartSeries.size(), chartSeries);
-        mMeasureViewableArea = new float[mChartSeries.size()];
+        final ChartSeries chartSeries = SeriesListHelper.createChartSeries(seriesItem, mTotalAngle, mRotateAngle,
+                mHorizGravity, mVertGravity);
+        chartSeries.setFrameRequestListener(mFrameRequestListener);
+        chartSeries.setEdgeRenderMode(mEdgeRenderMode);
+        mSeriesListVersion++;
+        return chartSeries;
+    }
+
+    /**
+     * Create a series and allocate a new handle for it
+     *
+     * @param seriesItem item attributes
+     * @return new series
+     */
+    @NonNull
+    private ChartSeries createChartSeriesWithHandle(@NonNull SeriesItem seriesItem) {
+        final ChartSeries chartSeries = createChartSeries(seriesItem);
+        chartSeries.setHandle(mNextHandle);
+        mSeriesByHandle.put(mNextHandle, chartSeries);
+        mNextHandle++;
+        return chartSeries;
+    }
+
+    /**
+     * Retrieve the stable handle of the series at the given index. The handle continues to
+     * identify the series when other series are removed, replaced or moved
+     *
+     * @param index current index of the series
+     * @return handle of the series, or -1 if the index is invalid
+     */
+    public int getSeriesHandle(int index) {
+        final ChartSeries chartSeries = getChartSeries(index);
+        return chartSeries != null ? chartSeries.getHandle() : -1;
+    }
+
+    /**
+     * Retrieve the current index of a series. The index is the position used by
+     * {@link DecoEvent.Builder#setIndex(int)} and {@link #moveTo(int, float)}. This searches the
+     * series in drawing order, so is O(n) in the number of series
+     *
+     * @param handle handle of the series
+     * @return current index, or -1 if the series has been removed
+     */
+    public int getSeriesIndex(int handle) {
+        final ChartSeries chartSeries = getChartSeriesByHandle(handle);
+        return chartSeries != null ? mChartSeries.indexOf(chartSeries) : -1;
+    }
 
+    /**
+     * Retrieve a series by its handle
+     *
+     * @param handle handle of the series
+     * @return series, or null if the series has been removed
+     */
+    public ChartSeries getChartSeriesByHandle(int handle) {
+        return mSeriesByHandle.get(handle);
+    }
+
+    /**
+     * Remove one series from the view. All other series keep their paint, shader and animation
+     * state. The index of every series after the removed series is reduced by one, their handles
+     * are unchanged.
+     * <p/>
+     * Pending events for the removed series are cancelled, and pending events for the series after
+     * it are updated to the new index of their series.
+     * <p/>
+     * The series is found by handle without searching, removing it from the drawing order shifts
+     * the series after it so is O(n)
+     *
+     * @param handle handle of the series to remove
+     * @return true if removed, false if the handle is not valid
+     */
+    public boolean removeSeries(int handle) {
+        final ChartSeries chartSeries = getChartSeriesByHandle(handle);
+        if (chartSeries == null) {
+            return false;
+        }
+        final int index = mChartSeries.indexOf(chartSeries);
+        mSeriesByHandle.remove(handle);
+        mChartSeries.remove(index);
+        detachSeries(chartSeries);
+        if (mDecoEventManager != null) {
+            mDecoEventManager.onSeriesRemoved(index);
+        }
+        onSeriesListChanged();
+        return true;
+    }
+
+    /**
+     * Replace one series with a new item at the same index. The new series takes over the handle
+     * of the series it replaces and all other series are unchanged. Finding the index of the
+     * replaced series is O(n)
+     *
+     * @param handle     handle of the series to replace
+     * @param seriesItem attributes of the new series
+     * @return true if replaced, false if the handle is not valid
+     */
+    public boolean replaceSeries(int handle, @NonNull SeriesItem seriesItem) {
+        final ChartSeries chartSeries = getChartSeriesByHandle(handle);
+        if (chartSeries == null) {
+            return false;
+        }
+        final int index = mChartSeries.indexOf(chartSeries);
+        final ChartSeries replacement = createChartSeries(seriesItem);
+        replacement.setHandle(handle);
+        mSeriesByHandle.put(handle, replacement);
+        mChartSeries.set(index, replacement);
+        detachSeries(chartSeries);
+        onSeriesListChanged();
+        return true;
+    }
+
+    /**
+     * Move a series to a new position in the drawing order. The series between the old and new
+     * index are shifted, so this is O(n). Pending events follow their series to its new index
+     *
+     * @param handle handle of the series to move
+     * @param index  new index of the series
+     * @return true if moved, false if the handle is not valid
+     */
+    public boolean moveSeries(int handle, int index) {
+        final ChartSeries chartSeries = getChartSeriesByHandle(handle);
+        if (chartSeries == null) {
+            return false;
+        }
+        if (index < 0 || index >= mChartSeries.size()) {
+            throw new IllegalArgumentException("Invalid index: Position out of range (Index: " + index + " Series Count: " + mChartSeries.size() + ")");
+        }
+        final int from = mChartSeries.indexOf(chartSeries);
+        mChartSeries.remove(from);
+        mChartSeries.add(index, chartSeries);
+        if (mDecoEventManager != null) {
+            mDecoEventManager.onSeriesMoved(from, index);
+        }
+        onSeriesListChanged();
+        return true;
+    }
+
+    /**
+     * Stop a series that is no longer part of the view from animating or requesting frames
+     *
+     * @param chartSeries series removed from the view
+     */
+    private void detachSeries(@NonNull ChartSeries chartSeries) {
+        chartSeries.setFrameRequestListener(null);
+        chartSeries.cancelAnimation();
+    }
+
+    /**
+     * Series have been removed, replaced or moved, so the layout and all drawing that depends on
+     * the order of the series must be recalculated
+     */
+    private void onSeriesListChanged() {
+        mSeriesListVersion++;
         recalcLayout();
-        return mChartSeries.size() - 1;
+        invalidate();
     }
 
     /**
@@ -270,50 +634,9 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
             return;
         }
 
-        float offsetLineWidth = getWidestLine() / 2;
-        float offsetX = 0;
-        float offsetY = 0;
-
-        if (mCanvasWidth != mCanvasHeight) {
-            if (mCanvasWidth > mCanvasHeight) {
-                offsetX = (mCanvasWidth - mCanvasHeight) / 2;
-            } else {
-                offsetY = (mCanvasHeight - mCanvasWidth) / 2;
-            }
-        }
-
-        if (mVertGravity == VertGravity.GRAVITY_VERTICAL_FILL) {
-            offsetY = 0;
-        }
-
-        if (mHorizGravity == HorizGravity.GRAVITY_HORIZONTAL_FILL) {
-            offsetX = 0;
-        }
-        /**
-         * Respect the padding of the view and ensure we have at least that amount of
-         * space on each edge
-         */
-        float paddingLeft = offsetX + getPaddingLeft();
-        float paddingTop = offsetY + getPaddingTop();
-        float paddingRight = offsetX + getPaddingRight();
-        float paddingBottom = offsetY + getPaddingBottom();
-
-        mArcBounds = new RectF(offsetLineWidth + paddingLeft,
-                offsetLineWidth + paddingTop,
-                mCanvasWidth - offsetLineWidth - paddingRight,
-                mCanvasHeight - offsetLineWidth - paddingBottom);
-
-        if (mVertGravity == VertGravity.GRAVITY_VERTICAL_TOP) {
-            mArcBounds.offset(0, -offsetY);
-        } else if (mVertGravity == VertGravity.GRAVITY_VERTICAL_BOTTOM) {
-            mArcBounds.offset(0, offsetY);
-        }
-
-        if (mHorizGravity == HorizGravity.GRAVITY_HORIZONTAL_LEFT) {
-            mArcBounds.offset(-offsetX, 0);
-        } else if (mHorizGravity == HorizGravity.GRAVITY_HORIZONTAL_RIGHT) {
-            mArcBounds.offset(offsetX, 0);
-        }
+        mArcBounds = SeriesListHelper.calcArcBounds(mCanvasWidth, mCanvasHeight, getWidestLine(),
+                getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom(),
+                mHorizGravity, mVertGravity);
     }
 
     /**
@@ -346,92 +669,595 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
             return;
         }
 
+        mDirtyRectUsed = Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP || !canvas.isHardwareAccelerated();
+        mLabelDrawBounds.setEmpty();
+
+        final boolean sample = mFrameMetricsListener != null && (mFrameCount++ % mFrameMetricsSampleInterval) == 0;
+        final long drawStart = sample ? System.nanoTime() : 0;
+        if (sample) {
+            mFrameMetrics.startFrame(mFrameCount, mChartSeries != null ? mChartSeries.size() : 0);
+        }
+
+        if (mDenseRingChart != null) {
+            mDenseRingChart.draw(canvas, mArcBounds, mRotateAngle, mTotalAngle);
+        }
+
         if (mChartSeries != null) {
-            boolean labelsSupported = true;
+            final FrameSnapshot frame = takeFrameForDraw();
+            final int cachedCount = drawStaticLayer(canvas);
             for (int i = 0; i < mChartSeries.size(); i++) {
                 ChartSeries chartSeries = mChartSeries.get(i);
-                chartSeries.draw(canvas, mArcBounds);
-                // labels Unsupported if one or more series run anticlockwise
-                labelsSupported &= (!chartSeries.isVisible() || chartSeries.getSeriesItem().getSpinClockwise());
-                mMeasureViewableArea[i] = getLabelPosition(i);
+                if (i >= cachedCount) {
+                    frame.apply(i);
+                    if (sample) {
+                        final long seriesStart = System.nanoTime();
+                        chartSeries.draw(canvas, mArcBounds);
+                        mFrameMetrics.setSeriesDrawNanos(i, System.nanoTime() - seriesStart);
+                    } else {
+                        chartSeries.draw(canvas, mArcBounds);
+                    }
+                }
+                if (mDirtyRectUsed) {
+                    chartSeries.updateDrawBounds(mArcBounds);
+                }
             }
 
             // Draw the labels as a second pass as we want all labels to be on top of all
             // series data
-            if (labelsSupported) {
-                for (int i = 0; i < mMeasureViewableArea.length; i++) {
-                    if (mMeasureViewableArea[i] >= 0f) {
-                        ChartSeries chartSeries = mChartSeries.get(i);
-                        chartSeries.drawLabel(canvas, mArcBounds, mMeasureViewableArea[i]);
-                        //TODO: Keep bounds of all labels and don't allow overlap
-                    }
-                }
+            frame.drawLabels(canvas);
+            mLabelDrawBounds.set(frame.getLabelUnion());
+            if (sample) {
+                mFrameMetrics.setLabels(frame.getLabelCount(), mDrawnFrameNew && frame.isLabelLayoutUpdated());
+            }
+            mDrawnFrameNew = false;
+        }
+
+        if (sample) {
+            mFrameMetrics.endFrame(System.nanoTime() - drawStart, mActiveAnimations, mDroppedFrames);
+            mDroppedFrames = 0;
+            mFrameMetricsListener.onFrameMetrics(mFrameMetrics);
+        }
+    }
+
+    /**
+     * Set a listener to receive measurements of the frames drawn by this view. To keep the cost
+     * low enough to leave enabled in release builds only one in every sampleInterval frames is
+     * measured and reported. When no listener is set no measurements are taken.
+     *
+     * @param listener       listener to receive the measurements, or null to disable
+     * @param sampleInterval report one frame in every sampleInterval frames, 1 for every frame
+     */
+    public void setFrameMetricsListener(FrameMetricsListener listener, int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Sample interval must be >= 1");
+        }
+        mFrameMetricsListener = listener;
+        mFrameMetricsSampleInterval = sampleInterval;
+        mFrameCount = 0;
+        mDroppedFrames = 0;
+        mLastAnimationFrameTime = -1;
+        if (listener != null && mFrameMetrics == null) {
+            mFrameMetrics = new DecoFrameMetrics();
+        }
+    }
+
+    /**
+     * Count the frames missed since the previous animation frame
+     *
+     * @param frameTime time of the current frame in ms
+     */
+    private void measureFrameInterval(long frameTime) {
+        if (mLastAnimationFrameTime >= 0) {
+            final long elapsed = frameTime - mLastAnimationFrameTime;
+            if (elapsed > FRAME_INTERVAL_MS * 1.5f) {
+                mDroppedFrames += Math.round(elapsed / FRAME_INTERVAL_MS) - 1;
             }
         }
+        mLastAnimationFrameTime = frameTime;
     }
 
     /**
-     * Determine where a label should be displayed given its position and the position of all
-     * other data series
+     * Draw the series that are not animating from the static layer, rebuilding the layer if any of
+     * those series have changed. Only the series drawn before the first animating series can be
+     * cached as the order of drawing must be preserved
      *
-     * @param index position of index in {@link #mChartSeries} array
-     * @return < 0 if label not visible, else 0f .. 1.0f to indicate position on circle
+     * @param canvas the canvas on which the view will be drawn
+     * @return number of series drawn from the static layer
      */
-    private float getLabelPosition(final int index) {
-        float max = 0.0f;
+    private int drawStaticLayer(@NonNull Canvas canvas) {
+        if (!mStaticLayerEnabled || getWidth() <= 0 || getHeight() <= 0) {
+            return 0;
+        }
+
+        int count = 0;
+        while (count < mChartSeries.size() && mChartSeries.get(count).isIdle()) {
+            count++;
+        }
+
+        if (count == 0 || count == mChartSeries.size()) {
+            // Nothing to cache, or nothing is animating so the series are only drawn once anyway
+            return 0;
+        }
+
+        boolean valid = mStaticLayer != null && mStaticLayerCount == count &&
+                mStaticLayerListVersion == mSeriesListVersion && mStaticLayerBounds.equals(mArcBounds);
+        for (int i = 0; valid && i < count; i++) {
+            valid = !mChartSeries.get(i).isDrawStateChanged();
+        }
+
+        if (!valid) {
+            if (mStaticLayer == null || mStaticLayer.getWidth() != getWidth() || mStaticLayer.getHeight() != getHeight()) {
+                releaseStaticLayer();
+                mStaticLayer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+                mStaticLayerCanvas = new Canvas(mStaticLayer);
+            } else {
+                mStaticLayer.eraseColor(Color.TRANSPARENT);
+            }
 
-        ChartSeries chartSeries = mChartSeries.get(index);
-        // We only need to check those series drawn after this series
-        for (int i = index + 1; i < mChartSeries.size(); i++) {
-            ChartSeries innerSeries = mChartSeries.get(i);
-            if (innerSeries.isVisible() && max < innerSeries.getPositionPercent()) {
-                max = innerSeries.getPositionPercent();
+            for (int i = 0; i < count; i++) {
+                ChartSeries chartSeries = mChartSeries.get(i);
+                chartSeries.draw(mStaticLayerCanvas, mArcBounds);
+                chartSeries.saveDrawState();
             }
+            mStaticLayerCount = count;
+            mStaticLayerListVersion = mSeriesListVersion;
+            mStaticLayerBounds.set(mArcBounds);
         }
 
-        if (max < chartSeries.getPositionPercent()) {
-            // Adjust for incomplete circles
-            float adjusted = ((chartSeries.getPositionPercent() + max) / 2) * ((float) mTotalAngle / 360f);
+        canvas.drawBitmap(mStaticLayer, 0, 0, null);
+        return count;
+    }
+
+    /**
+     * Free the memory used by the static layer
+     */
+    private void releaseStaticLayer() {
+        if (mStaticLayer != null) {
+            mStaticLayer.recycle();
+            mStaticLayer = null;
+            mStaticLayerCanvas = null;
+        }
+        mStaticLayerCount = 0;
+    }
 
-            // Adjust for rotation of start point
-            float adjust = adjusted + (((float) mRotateAngle + 90f) / 360f);
+    /**
+     * Cache the drawing of series that are not animating, such as a background track, in a bitmap
+     * while other series animate. The cached series are drawn once and the bitmap is then drawn on
+     * each frame, until the bounds of the view or the color, line width, position or angle of any
+     * cached series changes.
+     * <p/>
+     * The bitmap is the size of the view, so this is disabled by default to avoid the memory cost
+     * where many DecoViews are displayed
+     *
+     * @param enabled true to cache idle series
+     */
+    public void setStaticLayerEnabled(boolean enabled) {
+        mStaticLayerEnabled = enabled;
+        if (!enabled) {
+            releaseStaticLayer();
+        }
+        invalidate();
+    }
 
-            // Normalize
-            while (adjust > 1.0f) {
-                adjust -= 1.0f;
+    /**
+     * Post the frame callback if it is not already scheduled for the next frame
+     */
+    private void scheduleFrame() {
+        if (mAnimationSuspended) {
+            mFrameDeferred = true;
+            return;
+        }
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            if (mAnimationGroup != null) {
+                mAnimationGroup.requestFrame(this);
+            } else {
+                ViewCompat.postOnAnimation(this, mFrameRunnable);
             }
-            return adjust;
         }
-        return -1f;
     }
 
     /**
-     * Execute a move event
+     * Remove the frame posted or requested from the group, if any
+     */
+    private void cancelScheduledFrame() {
+        if (!mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = false;
+        if (mAnimationGroup != null) {
+            mAnimationGroup.cancelFrame(this);
+        } else {
+            removeCallbacks(mFrameRunnable);
+        }
+    }
+
+    /**
+     * Frame of the {@link DecoAnimationGroup} of the view, only called when this view requested
+     * the frame
      *
-     * @param event Event to execute
+     * @param frameTime time of the frame shared by all views of the group
      */
-    private void executeMove(@NonNull DecoEvent event) {
-        if ((event.getEventType() != DecoEvent.EventType.EVENT_MOVE) &&
-                (event.getEventType() != DecoEvent.EventType.EVENT_COLOR_CHANGE)) {
+    void onGroupFrame(long frameTime) {
+        mFrameScheduled = false;
+        onAnimationFrame(frameTime);
+    }
+
+    /**
+     * Advance the animation of every series to the frame time, request the next frame if still
+     * animating and invalidate the area that has changed. Called on each frame of this view, or on
+     * each frame of the {@link DecoAnimationGroup} the view requested
+     *
+     * @param frameTime time of the current frame in ms
+     */
+    private void onAnimationFrame(long frameTime) {
+        if (mAnimationSuspended) {
+            mLastAnimationFrameTime = -1;
+            return;
+        }
+        if (mFrameMetricsListener != null) {
+            measureFrameInterval(frameTime);
+        }
+        if (advanceAnimations(frameTime)) {
+            scheduleFrame();
+        } else {
+            mLastAnimationFrameTime = -1;
+        }
+        if (mFrameExecutor != null && submitFrame()) {
+            // The view is invalidated once the frame has been prepared
             return;
         }
+        invalidateChangedSeries(canPrepareFrame() ? prepareFrame() : null);
+    }
 
-        if (mChartSeries != null) {
-            if (mChartSeries.size() <= event.getIndexPosition()) {
-                throw new IllegalArgumentException("Invalid index: Position out of range (Index: " + event.getIndexPosition() + " Series Count: " + mChartSeries.size() + ")");
+    /**
+     * Suspend animation if the view is detached from its window, hidden, or scrolled completely out
+     * of view, removing any frame already requested. Resume animation if it was suspended and the
+     * view can now be seen. Animations continue from the current time, so any animation that would
+     * have completed while suspended is drawn in its final position on the first frame and its
+     * listeners are notified then.
+     * <p/>
+     * Finding the visible area walks the parents of the view, so this is only called when the
+     * visibility or position of the view may have changed and never per frame
+     */
+    private void updateAnimationSuspended() {
+        final boolean wasSuspended = mAnimationSuspended;
+        mAnimationSuspended = !mAttached || getWindowVisibility() != VISIBLE || !isShown() ||
+                !getGlobalVisibleRect(mVisibleRect);
+        if (mAnimationSuspended) {
+            mFrameDeferred |= mFrameScheduled;
+            cancelScheduledFrame();
+        } else if (wasSuspended) {
+            if (mFrameDeferred) {
+                mFrameDeferred = false;
+                scheduleFrame();
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * The view may have scrolled or been laid out into or out of view. Only checked while
+     * suspended or animating, as there is nothing to suspend otherwise
+     */
+    private void onViewPositionChanged() {
+        if (mAnimationSuspended || mFrameScheduled || mActiveAnimations > 0) {
+            updateAnimationSuspended();
+        }
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateAnimationSuspended();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateAnimationSuspended();
+    }
+
+    /**
+     * Is animation of the series suspended as the view is detached, hidden or completely out of
+     * view
+     *
+     * @return true if suspended
+     */
+    public boolean isAnimationSuspended() {
+        return mAnimationSuspended;
+    }
+
+    /**
+     * Set the group that provides the frames of this view. Called by {@link DecoAnimationGroup}
+     * when the view is added or removed
+     *
+     * @param group group sharing its frames, or null for the view to run its own frames
+     */
+    void setAnimationGroup(@Nullable DecoAnimationGroup group) {
+        if (mAnimationGroup == group) {
+            return;
+        }
+        final boolean frameScheduled = mFrameScheduled;
+        cancelScheduledFrame();
+        if (mAnimationGroup != null && mAttached) {
+            mAnimationGroup.onViewDetached(this);
+        }
+        mAnimationGroup = group;
+        if (mAnimationGroup != null && mAttached) {
+            mAnimationGroup.onViewAttached(this);
+        }
+        // Continue any animation in progress on the new frame clock
+        if (frameScheduled) {
+            scheduleFrame();
+        }
+    }
+
+    /**
+     * Group this view has joined, see {@link DecoAnimationGroup#addView(DecoView)}
+     *
+     * @return group, or null if the view runs its own frames
+     */
+    @Nullable
+    public DecoAnimationGroup getAnimationGroup() {
+        return mAnimationGroup;
+    }
+
+    /**
+     * Advance the animation of every series to the given frame time
+     *
+     * @param frameTime time of the current frame in ms
+     * @return true if one or more series are still animating
+     */
+    private boolean advanceAnimations(long frameTime) {
+        int animating = 0;
+        if (mDenseRingChart != null && mDenseRingChart.onAnimationFrame(frameTime)) {
+            animating++;
+        }
+
+        // Take a local reference as an event listener may delete all series during the pass
+        final ArrayList<ChartSeries> chartSeriesList = mChartSeries;
+        if (chartSeriesList == null) {
+            mActiveAnimations = animating;
+            return animating > 0;
+        }
+
+        for (int i = 0; i < chartSeriesList.size(); i++) {
+            if (chartSeriesList.get(i).onAnimationFrame(frameTime)) {
+                animating++;
+            }
+        }
+        mActiveAnimations = animating;
+        return animating > 0;
+    }
+
+    /**
+     * Invalidate the area of the view covered by the series that have changed since the last frame,
+     * both where they were drawn and where they will now be drawn, along with all labels. If the
+     * area of any series can not be determined, or the view is hardware accelerated on API 21 or
+     * later, the complete view is invalidated
+     *
+     * @param frame frame prepared for the next draw, or null if no frame could be prepared
+     */
+    private void invalidateChangedSeries(@Nullable FrameSnapshot frame) {
+        final ArrayList<ChartSeries> chartSeriesList = mChartSeries;
+        if (!mDirtyRectUsed || chartSeriesList == null || mArcBounds == null || mArcBounds.isEmpty() ||
+                (mDenseRingChart != null && mDenseRingChart.isChanged())) {
+            invalidate();
+            return;
+        }
+
+        mDirtyBounds.setEmpty();
+        boolean changed = false;
+        boolean hasLabels = false;
+        for (int i = 0; i < chartSeriesList.size(); i++) {
+            ChartSeries chartSeries = chartSeriesList.get(i);
+            if (!chartSeries.addDirtyBounds(mArcBounds, mDirtyBounds)) {
+                invalidate();
+                return;
+            }
+            changed |= chartSeries.isChanged();
+            hasLabels |= chartSeries.getSeriesItem().getSeriesLabel() != null;
+        }
+
+        if (!changed) {
+            return;
+        }
+
+        if (hasLabels) {
+            if (frame == null) {
+                invalidate();
+                return;
             }
+            // The position of every label depends on the position of the series drawn over it
+            mDirtyBounds.union(mLabelDrawBounds);
+            mDirtyBounds.union(frame.getLabelUnion());
+        }
 
-            final int index = event.getIndexPosition();
-            if (index >= 0 && index < mChartSeries.size()) {
-                ChartSeries item = mChartSeries.get(event.getIndexPosition());
-                if (event.getEventType() == DecoEvent.EventType.EVENT_COLOR_CHANGE) {
-                    item.startAnimateColorChange(event);
-                } else {
-                    item.startAnimateMove(event);
+        if (!mDirtyBounds.isEmpty()) {
+            invalidate((int) Math.floor(mDirtyBounds.left), (int) Math.floor(mDirtyBounds.top),
+                    (int) Math.ceil(mDirtyBounds.right), (int) Math.ceil(mDirtyBounds.bottom));
+        }
+    }
+
+    /**
+     * Can a frame be prepared for the current state of the view
+     *
+     * @return true if there are series and the bounds of the view are known
+     */
+    private boolean canPrepareFrame() {
+        return mChartSeries != null && mArcBounds != null && !mArcBounds.isEmpty();
+    }
+
+    /**
+     * Copy the animated state of every series into a frame. Must be called on the UI thread
+     *
+     * @param frame frame to capture into
+     */
+    private void captureFrame(@NonNull FrameSnapshot frame) {
+        frame.capture(mChartSeries, mSeriesListVersion, getWidth(), getHeight(), mArcBounds, mTotalAngle, mRotateAngle);
+    }
+
+    /**
+     * Capture and prepare a frame on the UI thread. If a frame is being prepared on the executor
+     * this waits for it to complete, as the labels can only be formatted by one thread at a time
+     *
+     * @return prepared frame, also stored as the next frame to draw
+     */
+    @NonNull
+    private FrameSnapshot prepareFrame() {
+        final FrameSnapshot frame;
+        final FrameSnapshot previous;
+        synchronized (mFrameLock) {
+            boolean interrupted = false;
+            while (mPreparingFrame != null) {
+                try {
+                    mFrameLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
-            } else {
-                Log.e(TAG, "Ignoring move request: Invalid array index. Index: " + index + " Size: " + mChartSeries.size());
             }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            // A prepared frame that has not been drawn is replaced by this newer frame
+            frame = mPreparedFrame != null ? mPreparedFrame : obtainFrame();
+            mPreparedFrame = null;
+            previous = mLastPreparedFrame;
+        }
+
+        captureFrame(frame);
+        frame.prepare(previous);
+
+        synchronized (mFrameLock) {
+            mLastPreparedFrame = frame;
+            mPreparedFrame = frame;
+        }
+        return frame;
+    }
+
+    /**
+     * Capture a frame and prepare it on {@link #mFrameExecutor}. Only one frame is prepared at a
+     * time, if the previous frame is still being prepared another animation frame is requested
+     * and the state is captured then
+     *
+     * @return true if the frame is prepared on the executor, which invalidates the view when done
+     */
+    private boolean submitFrame() {
+        if (!canPrepareFrame()) {
+            return false;
+        }
+
+        final FrameSnapshot frame;
+        synchronized (mFrameLock) {
+            if (mPreparingFrame != null) {
+                scheduleFrame();
+                return true;
+            }
+            frame = mPreparedFrame != null ? mPreparedFrame : obtainFrame();
+            mPreparedFrame = null;
+            mPreparingFrame = frame;
+        }
+
+        captureFrame(frame);
+        mFrameExecutor.execute(mPrepareRunnable);
+        return true;
+    }
+
+    /**
+     * Retrieve the frame to draw. The latest prepared frame is used if there is one. When preparing
+     * on the UI thread the frame is prepared again if any series has changed since it was captured.
+     * When preparing on an executor the last frame drawn is used while the next frame is
+     * being prepared, so the geometry and labels drawn are up to one frame behind the animation
+     *
+     * @return frame to draw
+     */
+    @NonNull
+    private FrameSnapshot takeFrameForDraw() {
+        boolean preparing;
+        synchronized (mFrameLock) {
+            if (mPreparedFrame != null) {
+                if (mDrawnFrame != null) {
+                    mSpareFrames.add(mDrawnFrame);
+                }
+                mDrawnFrame = mPreparedFrame;
+                mPreparedFrame = null;
+                mDrawnFrameNew = true;
+            }
+            preparing = mPreparingFrame != null;
+        }
+
+        final FrameSnapshot drawn = mDrawnFrame;
+        if (drawn != null && drawn.matches(mSeriesListVersion, getWidth(), getHeight(), mArcBounds) &&
+                (preparing || !drawn.isStale())) {
+            return drawn;
+        }
+
+        final FrameSnapshot frame = prepareFrame();
+        synchronized (mFrameLock) {
+            mPreparedFrame = null;
+            if (drawn != null) {
+                mSpareFrames.add(drawn);
+            }
+            mDrawnFrame = frame;
+            mDrawnFrameNew = true;
+        }
+        return frame;
+    }
+
+    /**
+     * Retrieve a frame that is not in use. Must hold {@link #mFrameLock}
+     *
+     * @return unused frame
+     */
+    @NonNull
+    private FrameSnapshot obtainFrame() {
+        if (!mSpareFrames.isEmpty()) {
+            return mSpareFrames.remove(mSpareFrames.size() - 1);
+        }
+        return new FrameSnapshot();
+    }
+
+    /**
+     * Release all frames that are not being prepared, along with the series they reference
+     */
+    private void releaseFrames() {
+        synchronized (mFrameLock) {
+            mDrawnFrame = null;
+            mPreparedFrame = null;
+            if (mLastPreparedFrame != mPreparingFrame) {
+                mLastPreparedFrame = null;
+            }
+            mSpareFrames.clear();
+        }
+    }
+
+    /**
+     * Prepare the geometry and labels of each frame on a worker thread rather than the UI thread.
+     * The sweep angles of each series, the text of each label and the position of each label are
+     * calculated by the executor while the previous frame is drawn, leaving only the canvas calls
+     * on the UI thread. The frame drawn may then be one frame behind the animation.
+     * <p/>
+     * The executor should run tasks on a single background thread, such as
+     * {@link java.util.concurrent.Executors#newSingleThreadExecutor()}, and is not shut down by
+     * the view. Attributes of a {@link SeriesItem} changed while animating are applied from the
+     * next frame prepared.
+     *
+     * @param executor executor used to prepare frames, or null to prepare on the UI thread
+     */
+    public void setFramePrepareExecutor(@Nullable Executor executor) {
+        mFrameExecutor = executor;
+        invalidate();
+    }
+
+    /**
+     * Execute a move event
+     *
+     * @param event Event to execute
+     */
+    private void executeMove(@NonNull DecoEvent event) {
+        if (mChartSeries != null) {
+            SeriesListHelper.executeMove(mChartSeries, event);
         }
     }
 
@@ -451,6 +1277,88 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
         getEventManager().add(event);
     }
 
+    /**
+     * Add an event with its delay measured from the given time rather than now. Used by
+     * {@link DecoAnimationGroup} so events added to several views are due at the same time
+     *
+     * @param event    Event to be processed
+     * @param baseTime uptime in ms the delay of the event is measured from
+     */
+    void addEvent(@NonNull DecoEvent event, long baseTime) {
+        getEventManager().add(event, baseTime);
+    }
+
+    /**
+     * Remove all pending events without resetting the series
+     */
+    void resetEvents() {
+        if (mDecoEventManager != null) {
+            mDecoEventManager.resetEvents();
+        }
+    }
+
+    /**
+     * Replace a pending move event with a newer move event for the same series, rather than
+     * executing both. See {@link DecoEventManager#setCoalesceMoves(boolean)}
+     *
+     * @param coalesce true to coalesce move events
+     */
+    public void setCoalesceMoveEvents(boolean coalesce) {
+        getEventManager().setCoalesceMoves(coalesce);
+    }
+
+    /**
+     * Number of move events discarded because they were replaced by a newer move event for the
+     * same series
+     *
+     * @return number of coalesced events
+     */
+    public int getCoalescedMoveEventCount() {
+        return mDecoEventManager != null ? mDecoEventManager.getCoalescedCount() : 0;
+    }
+
+    /**
+     * Add an event to be executed once another event has ended, with the delay of the event
+     * measured from that point. See {@link DecoEventManager#addAfter(DecoEvent, DecoEvent)}
+     *
+     * @param previous event that must end first
+     * @param event    Event to be processed
+     */
+    public void addEventAfter(@NonNull DecoEvent previous, @NonNull DecoEvent event) {
+        getEventManager().addAfter(previous, event);
+    }
+
+    /**
+     * Cancel all pending events with the given event ID, along with events sequenced after them
+     *
+     * @param eventID ID set by {@link DecoEvent.Builder#setEventID(long)}
+     * @return number of events cancelled
+     */
+    public int cancelEvent(long eventID) {
+        return mDecoEventManager != null ? mDecoEventManager.cancel(eventID) : 0;
+    }
+
+    /**
+     * Cancel all pending events for the series at the given index, along with events sequenced
+     * after them
+     *
+     * @param index index of the series
+     * @return number of events cancelled
+     */
+    public int cancelSeriesEvents(int index) {
+        return mDecoEventManager != null ? mDecoEventManager.cancelSeries(index) : 0;
+    }
+
+    /**
+     * Events added to the view that have not yet been executed, in the order they are due
+     *
+     * @return pending events
+     */
+    @NonNull
+    public List<DecoEvent> getPendingEvents() {
+        return mDecoEventManager != null ? mDecoEventManager.getPendingEvents() : new ArrayList<DecoEvent>();
+    }
+
     /**
      * Basic wrapper function to create an event with all defaults for the arc and simply execute
      * a move for the current position of the arc. If you want to customize the move (such as delay,
@@ -470,21 +1378,83 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
      * speed, interpolator...) then you need to use create an {@link DecoEvent} and call
      * {@link #addEvent(DecoEvent)}
      * <p/>
-     * This function will not create a {@link DecoEvent} if you pass 0 as the duration
+     * This function will not create a {@link DecoEvent} if you pass 0 as the duration. Any animation
+     * running on the series is cancelled and the series is moved immediately
      *
      * @param index    index of the arc series to apply the move
      * @param position position of the arc
      * @param duration duration of the move
+     * @throws IllegalArgumentException if the duration is 0 and there is no series at the index
      */
     public void moveTo(int index, float position, int duration) {
         if (duration == 0) {
-            getChartSeries(index).setPosition(position);
+            final ChartSeries chartSeries = getChartSeries(index);
+            if (chartSeries == null) {
+                throw new IllegalArgumentException("Invalid index: Position out of range (Index: " + index + " Series Count: " + (mChartSeries != null ? mChartSeries.size() : 0) + ")");
+            }
+            chartSeries.cancelAnimation();
+            chartSeries.setPosition(position);
             invalidate();
             return;
         }
         addEvent(new DecoEvent.Builder(position).setIndex(index).setDuration(duration).build());
     }
 
+    /**
+     * Move many series at once to new positions. This is equivalent to calling
+     * {@link #moveTo(int, float)} for each series, but all moves are applied in a single pass
+     * without scheduling an event for each series. All series start animating on the same frame and
+     * the view is invalidated once per frame for all of them.
+     * <p/>
+     * The moves do not pass through the {@link DecoEventManager}. No {@link DecoEvent} listener is
+     * notified, the moves are not coalesced with moves added by {@link #addEvent(DecoEvent)}, and
+     * pending events for the series still execute when they are due. Use
+     * {@link #cancelSeriesEvents(int)} first to discard pending moves
+     *
+     * @param positions new position for each series, indexed the same as the series. A value of
+     *                  {@link Float#NaN} leaves that series unchanged
+     */
+    public void moveTo(@NonNull float[] positions) {
+        moveTo(positions, -1);
+    }
+
+    /**
+     * Move many series at once to new positions with the given duration, see {@link #moveTo(float[])}
+     * <p/>
+     * If the duration is 0 any animation running on the series is cancelled and the series are
+     * moved immediately without animation
+     *
+     * @param positions new position for each series, indexed the same as the series. A value of
+     *                  {@link Float#NaN} leaves that series unchanged
+     * @param duration  duration of the move in ms, or -1 to calculate the duration from the spin
+     *                  duration of each series
+     */
+    public void moveTo(@NonNull float[] positions, long duration) {
+        if (mChartSeries == null) {
+            return;
+        }
+        if (positions.length > mChartSeries.size()) {
+            throw new IllegalArgumentException("Invalid positions: More positions than series (Positions: " + positions.length + " Series Count: " + mChartSeries.size() + ")");
+        }
+
+        for (int i = 0; i < positions.length; i++) {
+            if (Float.isNaN(positions[i])) {
+                continue;
+            }
+            if (duration == 0) {
+                final ChartSeries chartSeries = mChartSeries.get(i);
+                chartSeries.cancelAnimation();
+                chartSeries.setPosition(positions[i]);
+            } else {
+                mChartSeries.get(i).startAnimateMove(positions[i], duration);
+            }
+        }
+
+        if (duration == 0) {
+            invalidate();
+        }
+    }
+
     /**
      * Reset all arcs back to the start positions and remove all queued events
      */
@@ -508,7 +1478,16 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
             mDecoEventManager.resetEvents();
         }
 
+        if (mChartSeries != null) {
+            for (int i = 0; i < mChartSeries.size(); i++) {
+                detachSeries(mChartSeries.get(i));
+            }
+        }
         mChartSeries = null;
+        // Handles are not reset, so handles kept from before can not refer to new series
+        mSeriesByHandle.clear();
+        mSeriesListVersion++;
+        releaseFrames();
     }
 
     /**
@@ -529,12 +1508,7 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
         }
 
         if (mChartSeries != null) {
-            for (int i = 0; i < mChartSeries.size(); i++) {
-                if ((event.getIndexPosition() == i) || (event.getIndexPosition() < 0)) {
-                    ChartSeries chartSeries = mChartSeries.get(i);
-                    chartSeries.startAnimateHideShow(event, event.getEventType() == DecoEvent.EventType.EVENT_SHOW);
-                }
-            }
+            SeriesListHelper.executeReveal(mChartSeries, event);
         }
         return true;
     }
@@ -547,53 +1521,43 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
      */
     @SuppressWarnings("UnusedReturnValue")
     private boolean executeEffect(@NonNull DecoEvent event) {
-        if (event.getEventType() != DecoEvent.EventType.EVENT_EFFECT) {
-            return false;
-        }
-
-        if (mChartSeries == null) {
-            return false;
-        }
-
-        if (event.getIndexPosition() < 0) {
-            Log.e(TAG, "EffectType " + event.getEventType().toString() + " must specify valid data series index");
-            return false;
-        }
-
-        /**
-         * The EFFECT_SPIRAL_EXPLODE is a special case where different operations are applied to
-         * different series automatically. Must specify a valid series to use this effect
-         */
-        if (event.getEffectType() == DecoDrawEffect.EffectType.EFFECT_SPIRAL_EXPLODE) {
-            // hide all series, except the one to apply the effect
-            for (int i = 0; i < mChartSeries.size(); i++) {
-                ChartSeries chartSeries = mChartSeries.get(i);
-                if (i != event.getIndexPosition()) {
-                    chartSeries.startAnimateHideShow(event, false);
-                } else {
-                    chartSeries.startAnimateEffect(event);
-                }
-            }
-            return true;
-        }
+        return mChartSeries != null && SeriesListHelper.executeEffect(mChartSeries, event);
+    }
 
-        for (int i = 0; i < mChartSeries.size(); i++) {
-            if ((event.getIndexPosition() == i) || event.getIndexPosition() < 0) {
-                ChartSeries chartSeries = mChartSeries.get(i);
-                chartSeries.startAnimateEffect(event);
-            }
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttached = true;
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnScrollChangedListener(mScrollChangedListener);
+        observer.addOnGlobalLayoutListener(mGlobalLayoutListener);
+        if (mAnimationGroup != null) {
+            mAnimationGroup.onViewAttached(this);
         }
-
-        return true;
+        updateAnimationSuspended();
     }
 
     /**
      * This is called when the view is detached from a window. At this point it no longer has a
-     * surface for drawing, so we need to remove all scheduled events from the event manager
+     * surface for drawing, so we need to remove all scheduled events from the event manager and
+     * suspend animation until the view is attached again
      */
+    @SuppressWarnings("deprecation")
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        mAttached = false;
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.removeOnScrollChangedListener(mScrollChangedListener);
+        observer.removeGlobalOnLayoutListener(mGlobalLayoutListener);
+        updateAnimationSuspended();
+        if (mAnimationGroup != null) {
+            // The group only references attached views, so a view that is never removed from
+            // its group does not keep its window alive
+            mAnimationGroup.onViewDetached(this);
+        }
+        releaseStaticLayer();
+        releaseFrames();
         if (mDecoEventManager != null) {
             mDecoEventManager.resetEvents();
         }
@@ -647,14 +1611,50 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
      * The function causing the incompatibility is
      * {@link Canvas#clipPath(Path)}
      * This is used to clip the drawing rectangle to help render the Edge details decorations
+     * <p/>
+     * This call is ignored if {@link #setEdgeRenderMode(EdgeDetail.RenderMode)} has been used to
+     * select {@link EdgeDetail.RenderMode#RENDER_STROKE} as clipping is not used
      */
     public void enableCompatibilityMode() {
+        if (mEdgeRenderMode == EdgeDetail.RenderMode.RENDER_STROKE) {
+            return;
+        }
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2
                 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
             setLayerType(LAYER_TYPE_SOFTWARE, null);
+            mSoftwareLayerForClipping = true;
         }
     }
 
+    /**
+     * Set the method used to draw {@link EdgeDetail} for all series in this view.
+     * <p/>
+     * {@link EdgeDetail.RenderMode#RENDER_STROKE} draws each edge as an arc stroke inset from the
+     * edge of the series and never clips. This avoids the cost of {@link Canvas#clipPath(Path)} and
+     * allows EdgeDetail to be used with hardware acceleration on API 11 - 17, so the software layer
+     * set by {@link #enableCompatibilityMode()} is removed. The rounded ends of a partial arc are
+     * approximated in this mode.
+     *
+     * @param renderMode method to render edges
+     */
+    public void setEdgeRenderMode(@NonNull EdgeDetail.RenderMode renderMode) {
+        mEdgeRenderMode = renderMode;
+
+        if (mChartSeries != null) {
+            for (int i = 0; i < mChartSeries.size(); i++) {
+                mChartSeries.get(i).setEdgeRenderMode(renderMode);
+            }
+        }
+
+        if (renderMode == EdgeDetail.RenderMode.RENDER_STROKE && mSoftwareLayerForClipping) {
+            mSoftwareLayerForClipping = false;
+            if (!mSoftwareLayerRequested) {
+                setLayerType(LAYER_TYPE_NONE, null);
+            }
+        }
+        invalidate();
+    }
+
     /**
      * Allows DecoView to draw drop shadows. This should be enabled if you plan on using the
      * feature SeriesItem.setShadowSize(float) to add a drop shadow on one or more of your arc
@@ -663,6 +1663,7 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
     public void disableHardwareAccelerationForDecoView() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
             setLayerType(LAYER_TYPE_SOFTWARE, null);
+            mSoftwareLayerRequested = true;
         }
     }
 
@@ -684,15 +1685,23 @@ public class DecoView extends View implements DecoEventManager.ArcEventManagerLi
      * Retrieve the {@link SeriesItem} based on the index
      *
      * @param index index of the series item
-     * @return ChartSeries at given index
+     * @return ChartSeries at given index, or null if there is no series at the index
      */
     public ChartSeries getChartSeries(int index) {
-        if (index >= 0 && index < mChartSeries.size()) {
+        if (mChartSeries != null && index >= 0 && index < mChartSeries.size()) {
             return mChartSeries.get(index);
         }
         return null;
     }
 
+    /**
+     * Callback interface for measurements of each frame drawn, see
+     * {@link #setFrameMetricsListener(FrameMetricsListener, int)}
+     */
+    public interface FrameMetricsListener {
+        void onFrameMetrics(@NonNull DecoFrameMetrics metrics);
+    }
+
     /**
      * Vertical positioning values
      */
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import com.hookedonplay.decoviewlib.charts.ChartSeries;
+import com.hookedonplay.decoviewlib.charts.DecoDrawEffect;
+import com.hookedonplay.decoviewlib.charts.LineArcSeries;
+import com.hookedonplay.decoviewlib.charts.LineSeries;
+import com.hookedonplay.decoviewlib.charts.PieSeries;
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import java.util.List;
+
+/**
+ * Layout and creation of series and execution of {@link DecoEvent} on a list of series. Shared
+ * by {@link DecoView} and {@link DecoRenderer} so both lay out, draw and animate series in the
+ * same way
+ */
+final class SeriesListHelper {
+    static final private String TAG = "DecoView";
+
+    private SeriesListHelper() {
+    }
+
+    /**
+     * Calculate the angle the series start from. A complete circle starts at the top, anything
+     * less is centered so the gap is at the bottom
+     *
+     * @param totalAngle  Total angle of the view in degrees
+     * @param rotateAngle Number of degrees to rotate the start position
+     * @return start angle in degrees
+     */
+    static int calcStartAngle(int totalAngle, int rotateAngle) {
+        final int circleStartPosition = 270;
+        final int arcStartPosition = 90;
+        final int degreesInCircle = 360;
+
+        if (totalAngle < degreesInCircle) {
+            return ((arcStartPosition + (degreesInCircle - totalAngle) / 2) + rotateAngle) % degreesInCircle;
+        }
+        return (circleStartPosition + rotateAngle) % degreesInCircle;
+    }
+
+    /**
+     * Calculate the bounds of the series. The series are drawn in the largest square that fits
+     * within the padding, inset by half the widest line so the lines are not clipped. The square
+     * is centered unless the gravity places it at an edge, or fill gravity stretches it to the
+     * padding in that direction
+     *
+     * @param width         width of the canvas
+     * @param height        height of the canvas
+     * @param widestLine    width of the widest line of any series
+     * @param paddingLeft   left padding
+     * @param paddingTop    top padding
+     * @param paddingRight  right padding
+     * @param paddingBottom bottom padding
+     * @param horizGravity  horizontal gravity
+     * @param vertGravity   vertical gravity
+     * @return bounds of the series
+     */
+    @NonNull
+    static RectF calcArcBounds(int width, int height, float widestLine,
+                               int paddingLeft, int paddingTop, int paddingRight, int paddingBottom,
+                               DecoView.HorizGravity horizGravity, DecoView.VertGravity vertGravity) {
+        float offsetLineWidth = widestLine / 2;
+        float offsetX = 0;
+        float offsetY = 0;
+
+        if (width != height) {
+            if (width > height) {
+                offsetX = (width - height) / 2;
+            } else {
+                offsetY = (height - width) / 2;
+            }
+        }
+
+        if (vertGravity == DecoView.VertGravity.GRAVITY_VERTICAL_FILL) {
+            offsetY = 0;
+        }
+
+        if (horizGravity == DecoView.HorizGravity.GRAVITY_HORIZONTAL_FILL) {
+            offsetX = 0;
+        }
+
+        RectF arcBounds = new RectF(offsetLineWidth + offsetX + paddingLeft,
+                offsetLineWidth + offsetY + paddingTop,
+                width - offsetLineWidth - offsetX - paddingRight,
+                height - offsetLineWidth - offsetY - paddingBottom);
+
+        if (vertGravity == DecoView.VertGravity.GRAVITY_VERTICAL_TOP) {
+            arcBounds.offset(0, -offsetY);
+        } else if (vertGravity == DecoView.VertGravity.GRAVITY_VERTICAL_BOTTOM) {
+            arcBounds.offset(0, offsetY);
+        }
+
+        if (horizGravity == DecoView.HorizGravity.GRAVITY_HORIZONTAL_LEFT) {
+            arcBounds.offset(-offsetX, 0);
+        } else if (horizGravity == DecoView.HorizGravity.GRAVITY_HORIZONTAL_RIGHT) {
+            arcBounds.offset(offsetX, 0);
+        }
+        return arcBounds;
+    }
+
+    /**
+     * Create the {@link ChartSeries} used to draw a {@link SeriesItem}
+     *
+     * @param seriesItem   item attributes
+     * @param totalAngle   total angle of the view in degrees
+     * @param rotateAngle  rotation of the start of the view in degrees
+     * @param horizGravity horizontal gravity, used by line series
+     * @param vertGravity  vertical gravity, used by line series
+     * @return new series
+     */
+    @NonNull
+    static ChartSeries createChartSeries(@NonNull SeriesItem seriesItem, int totalAngle, int rotateAngle,
+                                         DecoView.HorizGravity horizGravity, DecoView.VertGravity vertGravity) {
+        switch (seriesItem.getChartStyle()) {
+            case STYLE_DONUT:
+                return new LineArcSeries(seriesItem, totalAngle, rotateAngle);
+            case STYLE_PIE:
+                return new PieSeries(seriesItem, totalAngle, rotateAngle);
+            case STYLE_LINE_HORIZONTAL:
+            case STYLE_LINE_VERTICAL:
+                Log.w(TAG, "STYLE_LINE_* is currently experimental");
+                LineSeries lineSeries = new LineSeries(seriesItem, totalAngle, rotateAngle);
+                lineSeries.setHorizGravity(horizGravity);
+                lineSeries.setVertGravity(vertGravity);
+                return lineSeries;
+            default:
+                throw new IllegalStateException("Chart Style not implemented");
+        }
+    }
+
+    /**
+     * Execute a move or color change event
+     *
+     * @param chartSeries all series
+     * @param event       Event to execute
+     */
+    static void executeMove(@NonNull List<ChartSeries> chartSeries, @NonNull DecoEvent event) {
+        if ((event.getEventType() != DecoEvent.EventType.EVENT_MOVE) &&
+                (event.getEventType() != DecoEvent.EventType.EVENT_COLOR_CHANGE)) {
+            return;
+        }
+
+        if (chartSeries.size() <= event.getIndexPosition()) {
+            throw new IllegalArgumentException("Invalid index: Position out of range (Index: " + event.getIndexPosition() + " Series Count: " + chartSeries.size() + ")");
+        }
+
+        final int index = event.getIndexPosition();
+        if (index >= 0 && index < chartSeries.size()) {
+            ChartSeries item = chartSeries.get(event.getIndexPosition());
+            if (event.getEventType() == DecoEvent.EventType.EVENT_COLOR_CHANGE) {
+                item.startAnimateColorChange(event);
+            } else {
+                item.startAnimateMove(event);
+            }
+        } else {
+            Log.e(TAG, "Ignoring move request: Invalid array index. Index: " + index + " Size: " + chartSeries.size());
+        }
+    }
+
+    /**
+     * Execute a show or hide event
+     *
+     * @param chartSeries all series
+     * @param event       Event to execute
+     * @return true if handled
+     */
+    static boolean executeReveal(@NonNull List<ChartSeries> chartSeries, @NonNull DecoEvent event) {
+        if ((event.getEventType() != DecoEvent.EventType.EVENT_SHOW) &&
+                (event.getEventType() != DecoEvent.EventType.EVENT_HIDE)) {
+            return false;
+        }
+
+        for (int i = 0; i < chartSeries.size(); i++) {
+            if ((event.getIndexPosition() == i) || (event.getIndexPosition() < 0)) {
+                chartSeries.get(i).startAnimateHideShow(event, event.getEventType() == DecoEvent.EventType.EVENT_SHOW);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Execute an effect event
+     *
+     * @param chartSeries all series
+     * @param event       Event to execute
+     * @return true if handled
+     */
+    static boolean executeEffect(@NonNull List<ChartSeries> chartSeries, @NonNull DecoEvent event) {
+        if (event.getEventType() != DecoEvent.EventType.EVENT_EFFECT) {
+            return false;
+        }
+
+        if (event.getIndexPosition() < 0) {
+            Log.e(TAG, "EffectType " + event.getEventType().toString() + " must specify valid data series index");
+            return false;
+        }
+
+        /**
+         * The EFFECT_SPIRAL_EXPLODE is a special case where different operations are applied to
+         * different series automatically. Must specify a valid series to use this effect
+         */
+        if (event.getEffectType() == DecoDrawEffect.EffectType.EFFECT_SPIRAL_EXPLODE) {
+            // hide all series, except the one to apply the effect
+            for (int i = 0; i < chartSeries.size(); i++) {
+                ChartSeries series = chartSeries.get(i);
+                if (i != event.getIndexPosition()) {
+                    series.startAnimateHideShow(event, false);
+                } else {
+                    series.startAnimateEffect(event);
+                }
+            }
+            return true;
+        }
+
+        for (int i = 0; i < chartSeries.size(); i++) {
+            if ((event.getIndexPosition() == i) || event.getIndexPosition() < 0) {
+                chartSeries.get(i).startAnimateEffect(event);
+            }
+        }
+
+        return true;
+    }
+}
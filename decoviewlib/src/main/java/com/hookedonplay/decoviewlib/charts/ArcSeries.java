@@ -17,10 +17,14 @@ package com.hookedonplay.decoviewlib.charts;
 
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Matrix;
+import android.graphics.Paint;
 import android.graphics.RectF;
-import android.graphics.SweepGradient;
+import android.graphics.Shader;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+import com.hookedonplay.decoviewlib.util.FastTrig;
 
 abstract public class ArcSeries extends ChartSeries {
     /**
@@ -31,6 +35,25 @@ abstract public class ArcSeries extends ChartSeries {
      * Sweep angle starts at {@link #mArcAngleStart}
      */
     protected float mArcAngleSweep;
+    /**
+     * Paint used to draw {@link EdgeDetail} as a stroke. Created when first required
+     */
+    private Paint mEdgePaint;
+    /**
+     * {@link #mArcAngleStart} and {@link #mArcAngleSweep} have been set from a prepared frame for
+     * the next draw, see {@link #applyFrame(FrameSnapshot, int)}
+     */
+    private boolean mArcAnglesApplied;
+    private boolean mArcAnglesAppliedVisible;
+    /**
+     * Receives the start and sweep angles calculated by {@link #calcArcAngles()}
+     */
+    private final float[] mArcAngles = new float[2];
+    /**
+     * Receives the angles used by {@link #calcDrawBounds(RectF, RectF)}, kept apart from the angles
+     * drawn so calculating the bounds does not replace the angles applied from a prepared frame
+     */
+    private final float[] mBoundsAngles = new float[2];
 
     ArcSeries(@NonNull SeriesItem seriesItem, int totalAngle, int rotateAngle) {
         super(seriesItem, totalAngle, rotateAngle);
@@ -44,7 +67,7 @@ abstract public class ArcSeries extends ChartSeries {
     abstract void drawArc(Canvas canvas);
 
     /**
-     * Draw this arc in the current position calculated by the ValueAnimator.
+     * Draw this arc in the current position calculated by the current animation frame.
      *
      * @param canvas Canvas used to draw
      * @param bounds Bounds to be used to draw the arc
@@ -52,55 +75,227 @@ abstract public class ArcSeries extends ChartSeries {
      */
     @Override
     public boolean draw(Canvas canvas, RectF bounds) {
+        final boolean applied = mArcAnglesApplied;
+        mArcAnglesApplied = false;
         if (super.draw(canvas, bounds)) {
             return true;
         }
 
-        final float endPos = calcCurrentPosition(mPositionStart, mPositionEnd, mSeriesItem.getMinValue(), mSeriesItem.getMaxValue(), mPercentComplete);
-        mArcAngleSweep = adjustSweepDirection(verifyMinSweepAngle(endPos * mAngleSweep));
-        mArcAngleStart = mAngleStart;
+        if (applied) {
+            return !mArcAnglesAppliedVisible;
+        }
+        return !calcArcAngles();
+    }
+
+    @Override
+    void captureFrame(@NonNull FrameSnapshot frame, int index) {
+        super.captureFrame(frame, index);
+        frame.setCapturedArc(index, mAngleStart, mAngleSweep, getMinSweepAngle(),
+                mSeriesItem.getMinValue(), mSeriesItem.getMaxValue(), mSeriesItem.getDrawAsPoint());
+    }
 
-        if (mSeriesItem.getDrawAsPoint()) {
-            mArcAngleStart = adjustDrawPointAngle(mArcAngleSweep);
-            mArcAngleSweep = adjustSweepDirection(getMinSweepAngle());
-        } else if (mArcAngleSweep == 0) {
+    @Override
+    void prepareFrame(@NonNull FrameSnapshot frame, int index) {
+        if (!frame.isVisible(index) || frame.getDrawMode(index) == DecoEvent.EventType.EVENT_EFFECT) {
+            return;
+        }
+        final float endPos = calcCurrentPosition(frame.getPositionStart(index), frame.getPositionEnd(index),
+                frame.getMinValue(index), frame.getMaxValue(index), frame.getPercentComplete(index),
+                frame.getDrawMode(index));
+        final float[] angles = frame.getArcScratch();
+        final boolean hasArc = calcArcAngles(endPos, frame.getAngleStart(index), frame.getAngleSweep(index),
+                frame.getMinSweepAngle(index), frame.isDrawAsPoint(index), frame.isSpinClockwise(index), angles);
+        frame.setArc(index, hasArc, angles[0], angles[1]);
+    }
+
+    @Override
+    void applyFrame(@NonNull FrameSnapshot frame, int index) {
+        mArcAnglesApplied = true;
+        mArcAnglesAppliedVisible = frame.hasArc(index);
+        mArcAngleStart = frame.getArcStart(index);
+        mArcAngleSweep = frame.getArcSweep(index);
+    }
+
+    /**
+     * Calculate {@link #mArcAngleStart} and {@link #mArcAngleSweep} for the current position
+     *
+     * @return false if there is nothing to draw
+     */
+    protected boolean calcArcAngles() {
+        final float endPos = calcCurrentPosition(mPositionStart, mPositionEnd, mSeriesItem.getMinValue(),
+                mSeriesItem.getMaxValue(), mPercentComplete, mDrawMode);
+        final boolean hasArc = calcArcAngles(endPos, mAngleStart, mAngleSweep, getMinSweepAngle(),
+                mSeriesItem.getDrawAsPoint(), mSeriesItem.getSpinClockwise(), mArcAngles);
+        mArcAngleStart = mArcAngles[0];
+        mArcAngleSweep = mArcAngles[1];
+        return hasArc;
+    }
+
+    /**
+     * Calculate the start and sweep angles of the arc for the given position. Only uses the values
+     * passed, so a frame can be prepared on a worker thread from its captured state
+     *
+     * @param endPos        position to draw the arc to 0 .. 1.0f
+     * @param angleStart    start angle of the series in degrees
+     * @param angleSweep    total angle of the series in degrees
+     * @param minSweep      minimum sweep angle, see {@link #getMinSweepAngle()}
+     * @param drawAsPoint   draw only a point at the position
+     * @param spinClockwise the series is drawn clockwise
+     * @param out           receives the start angle and sweep angle
+     * @return false if there is nothing to draw
+     */
+    private static boolean calcArcAngles(float endPos, float angleStart, float angleSweep, float minSweep,
+                                         boolean drawAsPoint, boolean spinClockwise, @NonNull float[] out) {
+        float sweep = endPos * angleSweep;
+        if (Math.abs(sweep) < minSweep) {
+            sweep = minSweep;
+        }
+        if (!spinClockwise) {
+            sweep = -sweep;
+        }
+        float start = angleStart;
+        boolean hasArc = true;
+
+        if (drawAsPoint) {
+            start = (angleStart + (sweep - minSweep)) % 360;
+            sweep = spinClockwise ? minSweep : -minSweep;
+        } else if (sweep == 0) {
+            hasArc = false;
+        }
+        out[0] = start;
+        out[1] = sweep;
+        return hasArc;
+    }
+
+    /**
+     * Calculate the area covered by the arc in its current position. This is the bounding box of
+     * the arc between its start and end angles, extended by half the line width (which also
+     * contains any rounded ends) and the shadow size
+     *
+     * @param bounds Bounds used to draw the series
+     * @param out    Receives the area covered by the series
+     * @return false if the area can not be determined
+     */
+    @Override
+    public boolean calcDrawBounds(@NonNull RectF bounds, @NonNull RectF out) {
+        if (!isVisible()) {
+            out.setEmpty();
+            return true;
+        }
+
+        if (mDrawMode == DecoEvent.EventType.EVENT_EFFECT || mBounds == null || !mBounds.equals(bounds)) {
+            return false;
+        }
+
+        final float endPos = calcCurrentPosition(mPositionStart, mPositionEnd, mSeriesItem.getMinValue(),
+                mSeriesItem.getMaxValue(), mPercentComplete, mDrawMode);
+        if (!calcArcAngles(endPos, mAngleStart, mAngleSweep, getMinSweepAngle(),
+                mSeriesItem.getDrawAsPoint(), mSeriesItem.getSpinClockwise(), mBoundsAngles)) {
+            out.setEmpty();
             return true;
         }
 
+        float start = mBoundsAngles[0];
+        float sweep = mBoundsAngles[1];
+        if (sweep < 0) {
+            start += sweep;
+            sweep = -sweep;
+        }
+
+        if (sweep >= 360) {
+            out.set(mBoundsInset);
+        } else {
+            final float centerX = mBoundsInset.centerX();
+            final float centerY = mBoundsInset.centerY();
+            final float radiusX = mBoundsInset.width() / 2;
+            final float radiusY = mBoundsInset.height() / 2;
+
+            start = start % 360;
+            if (start < 0) {
+                start += 360;
+            }
+            final float startX = centerX + radiusX * FastTrig.cosDegrees(start);
+            final float startY = centerY + radiusY * FastTrig.sinDegrees(start);
+            final float endX = centerX + radiusX * FastTrig.cosDegrees(start + sweep);
+            final float endY = centerY + radiusY * FastTrig.sinDegrees(start + sweep);
+            out.set(Math.min(startX, endX), Math.min(startY, endY),
+                    Math.max(startX, endX), Math.max(startY, endY));
+
+            // Include the extremes of the oval at 0, 90, 180 and 270 degrees if the arc passes them
+            for (int axis = 0; axis < 720; axis += 90) {
+                if (axis > start && axis < start + sweep) {
+                    switch (axis % 360) {
+                        case 0:
+                            out.right = mBoundsInset.right;
+                            break;
+                        case 90:
+                            out.bottom = mBoundsInset.bottom;
+                            break;
+                        case 180:
+                            out.left = mBoundsInset.left;
+                            break;
+                        default:
+                            out.top = mBoundsInset.top;
+                            break;
+                    }
+                }
+            }
+
+            if (mSeriesItem.getChartStyle() == SeriesItem.ChartStyle.STYLE_PIE) {
+                out.union(centerX, centerY);
+            }
+        }
+
+        // Add a pixel to allow for anti aliasing
+        float outset = 1f + Math.max(0, mSeriesItem.getShadowSize());
+        if (mPaint.getStyle() != Paint.Style.FILL) {
+            outset += mSeriesItem.getLineWidth() / 2;
+        }
+        out.inset(-outset, -outset);
+        return true;
+    }
+
+    /**
+     * Draw an {@link EdgeDetail} as an arc stroke along the current sweep of the series. This is
+     * used in place of clipping the series with {@link Canvas#clipPath(android.graphics.Path)}
+     *
+     * @param canvas      Canvas to draw onto
+     * @param oval        Oval that the center of the edge stroke follows
+     * @param strokeWidth Width of the edge
+     * @param color       Color of the edge
+     * @param cap         Cap to apply to the ends of the edge
+     * @param shader      Optional shader to apply to the edge
+     */
+    protected void drawEdgeStroke(@NonNull Canvas canvas, @NonNull RectF oval, float strokeWidth,
+                                  int color, @NonNull Paint.Cap cap, @Nullable Shader shader) {
+        if (strokeWidth <= 0) {
+            return;
+        }
+
+        if (mEdgePaint == null) {
+            mEdgePaint = new Paint();
+            mEdgePaint.setAntiAlias(true);
+            mEdgePaint.setStyle(Paint.Style.STROKE);
+        }
+        mEdgePaint.setColor(color);
+        mEdgePaint.setStrokeWidth(strokeWidth);
+        mEdgePaint.setStrokeCap(cap);
+        mEdgePaint.setShader(shader);
 
-        return false;
+        canvas.drawArc(oval, mArcAngleStart, mArcAngleSweep, false, mEdgePaint);
     }
 
     /**
-     * Build a gradient if required. This must be executed every time the bounds changes
+     * Build a gradient if required. This must be executed every time the bounds changes. The
+     * gradient is shared through the {@link ShaderCache} so it is only created once for a given
+     * set of colors, center point and angles
      */
     protected void applyGradientToPaint() {
         if (Color.alpha(mSeriesItem.getSecondaryColor()) != 0) {
-            SweepGradient gradient;
-            if (mAngleSweep < 360) {
-                /**
-                 * When we have less than a full circle we change the style of gradient so that
-                 * the two colors start at the same point. The two provided colors meet rather than
-                 * a fade the complete circumference. A matrix is rotated so the meeting of the
-                 * two colors occurs in the middle of the gap when the part circle is not drawn
-                 */
-                final int[] colors = {mSeriesItem.getColor(), mSeriesItem.getSecondaryColor()};
-                final float[] positions = {0, 1};
-                gradient = new SweepGradient(mBounds.centerX(), mBounds.centerY(), colors, positions);
-                Matrix gradientRotationMatrix = new Matrix();
-                gradientRotationMatrix.preRotate(mAngleStart - ((360f - mAngleSweep) / 2), mBounds.centerX(), mBounds.centerY());
-                gradient.setLocalMatrix(gradientRotationMatrix);
-            } else {
-                /**
-                 * Drawing a gradient around the complete circumference of the circle. This
-                 * gradient fades gently between the two colors.
-                 */
-                final int[] colors = {mSeriesItem.getSecondaryColor(), mSeriesItem.getColor(), mSeriesItem.getSecondaryColor()};
-                final float[] positions = {0, 0.5f * (mAngleSweep / 360f), 1};
-                gradient = new SweepGradient(mBounds.centerX(), mBounds.centerY(), colors, positions);
-            }
-
-            mPaint.setShader(gradient);
+            mPaint.setShader(ShaderCache.getInstance().getSweepGradient(mBounds.centerX(), mBounds.centerY(),
+                    mSeriesItem.getColor(), mSeriesItem.getSecondaryColor(), mAngleStart, mAngleSweep));
+        } else if (mPaint.getShader() != null) {
+            mPaint.setShader(null);
         }
     }
-}
\ No newline at end of file
+}
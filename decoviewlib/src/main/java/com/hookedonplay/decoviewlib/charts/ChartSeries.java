@@ -20,15 +20,15 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.RectF;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.Interpolator;
-import android.view.animation.LinearInterpolator;
 
 import com.hookedonplay.decoviewlib.DecoView;
 import com.hookedonplay.decoviewlib.events.DecoEvent;
-import com.nineoldandroids.animation.Animator;
-import com.nineoldandroids.animation.AnimatorListenerAdapter;
-import com.nineoldandroids.animation.ValueAnimator;
+
+import java.util.ArrayList;
 
 /**
  * ChartSeries is the implementation of one series of data.
@@ -43,6 +43,10 @@ abstract public class ChartSeries {
     static final private float MIN_SWEEP_ANGLE_FLAT = 0.1f;
     static final private float MIN_SWEEP_ANGLE_NONE = 0f;
     static final private float MIN_SWEEP_ANGLE_PIE = MIN_SWEEP_ANGLE_NONE;
+    /**
+     * Default interpolator used for move animations if none is set on the event or series
+     */
+    static final private Interpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
 
     @SuppressWarnings("unused")
     protected final String TAG = getClass().getSimpleName();
@@ -93,9 +97,77 @@ abstract public class ChartSeries {
      */
     private boolean mVisible;
     /**
-     * ValueAnimator to calculate arc drawing position during animation
+     * Method used to draw any {@link EdgeDetail} applied to this series
+     */
+    protected EdgeDetail.RenderMode mEdgeRenderMode = EdgeDetail.RenderMode.RENDER_CLIP_WHEN_REQUIRED;
+    /**
+     * Shadow layer currently applied to {@link #mPaint}
+     */
+    private float mPaintShadowSize;
+    private int mPaintShadowColor;
+    /**
+     * Type of animation currently being executed, null if not animating
+     */
+    private AnimationType mAnimationType;
+    /**
+     * Event that started the current animation. Notified when the animation ends
+     */
+    private DecoEvent mAnimationEvent;
+    /**
+     * Frame time the current animation started, -1 until the first frame is received
+     */
+    private long mAnimationStartTime = -1;
+    /**
+     * Duration of the current animation in ms
+     */
+    private long mAnimationDuration;
+    /**
+     * Interpolator for the current animation, null for linear
+     */
+    private Interpolator mAnimationInterpolator;
+    /**
+     * Reveal animation is showing (true) or hiding (false) the series
+     */
+    private boolean mAnimationShow;
+    /**
+     * Move animation also animates a change of color
+     */
+    private boolean mAnimationChangeColors;
+    /**
+     * Listener used to request frames while animating
+     */
+    private FrameRequestListener mFrameRequestListener;
+    /**
+     * Area covered by the series when it was last drawn, used to invalidate only the area of the
+     * view that changes. Only valid if {@link #mDrawBoundsKnown}
+     */
+    private final RectF mDrawBounds = new RectF();
+    private final RectF mDrawBoundsCurrent = new RectF();
+    private boolean mDrawBoundsKnown;
+    /**
+     * The series has changed since the area it covers was last recorded
+     */
+    private boolean mChanged = true;
+    /**
+     * Incremented every time the state of the series that affects drawing is changed
      */
-    private ValueAnimator mValueAnimator;
+    private int mDrawVersion;
+    /**
+     * State of the series when {@link #saveDrawState()} was last called. Attributes of the
+     * {@link SeriesItem} are included as they may be changed directly by the client
+     */
+    private int mSavedDrawVersion = -1;
+    private int mSavedColor;
+    private int mSavedSecondaryColor;
+    private float mSavedLineWidth;
+    private float mSavedShadowSize;
+    private int mSavedShadowColor;
+    private int mSavedEdgeDetailCount;
+
+    /**
+     * Stable handle used to identify the series in its view, -1 if not set
+     */
+    private int mHandle = -1;
 
     private ColorAnimate mColorAnimate;
 
@@ -103,6 +175,11 @@ abstract public class ChartSeries {
      * Current event being processed. Kept for the case where we pause and resume the event
      */
     private DecoEvent mEventCurrent;
+    /**
+     * Duration of the current move when started without an event, see
+     * {@link #startAnimateMove(float, long)}. Kept for the case where we pause and resume the move
+     */
+    private long mMoveDuration;
 
     /**
      * Has the current move animation been paused
@@ -155,6 +232,7 @@ abstract public class ChartSeries {
             mAngleStart = (mAngleStart + mAngleSweep) % 360;
         }
         mBounds = null;
+        markChanged();
     }
 
     public SeriesItem getSeriesItem() {
@@ -162,7 +240,40 @@ abstract public class ChartSeries {
     }
 
     /**
-     * Create the animation of filling the chart by using a valueAnimator to adjust values
+     * Stable handle identifying this series in the {@link DecoView} that contains it. Unlike the
+     * index of the series the handle does not change when other series are removed or moved
+     *
+     * @return handle, or -1 if the series has not been added to a view
+     */
+    public int getHandle() {
+        return mHandle;
+    }
+
+    /**
+     * Set the handle of this series. This is assigned by the {@link DecoView} when the series is
+     * added
+     *
+     * @param handle stable handle
+     */
+    public void setHandle(int handle) {
+        mHandle = handle;
+    }
+
+    /**
+     * Set the method used to draw any {@link EdgeDetail} applied to this series.
+     * {@link EdgeDetail.RenderMode#RENDER_STROKE} never uses {@link Canvas#clipPath(android.graphics.Path)}
+     * so edges can be drawn with hardware acceleration on all API levels
+     *
+     * @param renderMode method to render edges
+     */
+    public void setEdgeRenderMode(@NonNull EdgeDetail.RenderMode renderMode) {
+        mEdgeRenderMode = renderMode;
+        markChanged();
+    }
+
+    /**
+     * Create the animation of filling the chart. The animation is advanced by the frame clock of
+     * the owning view, see {@link #onAnimationFrame(long)}
      */
     public void startAnimateMove(@NonNull final DecoEvent event) {
         mIsPaused = false;
@@ -172,30 +283,61 @@ abstract public class ChartSeries {
         cancelAnimation();
         mEventCurrent = event;
 
-        final boolean changeColors = event.isColorSet();
-        if (changeColors) {
+        mAnimationChangeColors = event.isColorSet();
+        if (mAnimationChangeColors) {
             mColorAnimate = new ColorAnimate(mSeriesItem.getColor(), event.getColor());
             mSeriesItem.setColor(event.getColor());
         }
-        float position = event.getEndPosition();
-
 
         event.notifyStartListener();
 
+        startMove(event.getEndPosition(), event.getEffectDuration(), event.getInterpolator(), event);
+    }
+
+    /**
+     * Animate the series to a new position without a {@link DecoEvent}. The move is the same as a
+     * move event with the default attributes and the given duration, but no event listener is
+     * notified
+     *
+     * @param position new position of the series
+     * @param duration duration of the move in ms, 0 to move immediately or -1 to calculate the
+     *                 duration from the spin duration of the series
+     */
+    public void startAnimateMove(float position, long duration) {
+        mIsPaused = false;
+        mDrawMode = DecoEvent.EventType.EVENT_MOVE;
+        mVisible = true;
+
+        cancelAnimation();
+        mMoveDuration = duration;
+        mAnimationChangeColors = false;
+
+        startMove(position, duration, null, null);
+    }
+
+    /**
+     * Start the move animation from the current position
+     *
+     * @param position          new position of the series
+     * @param animationDuration duration of the move in ms, or -1 to calculate from the spin duration
+     * @param eventInterpolator interpolator of the event, or null to use that of the series
+     * @param event             event that started the move, or null
+     */
+    private void startMove(float position, long animationDuration, @Nullable Interpolator eventInterpolator,
+                           @Nullable DecoEvent event) {
         mPositionStart = mPositionCurrentEnd;
         mPositionEnd = position;
 
-        long animationDuration = event.getEffectDuration();
-
         if ((animationDuration == 0) || (Math.abs(mPositionEnd - mPositionStart) < 0.01)) {
             cancelAnimation();
             mPositionCurrentEnd = mPositionEnd;
             mEventCurrent = null;
             mPercentComplete = 1.0f;
-            for (SeriesItem.SeriesItemListener seriesItemListener : mSeriesItem.getListeners()) {
-                seriesItemListener.onSeriesItemAnimationProgress(1.0f, mPositionEnd);
+            notifyAnimationProgress();
+            if (event != null) {
+                event.notifyEndListener();
             }
-            event.notifyEndListener();
+            requestFrame();
             return;
         }
 
@@ -210,54 +352,18 @@ abstract public class ChartSeries {
 
         }
 
-        mValueAnimator = ValueAnimator.ofFloat(mPositionStart, position);
-        mValueAnimator.setDuration(animationDuration);
-
         /**
-         * Note: When setting the Interpolator the default is
-         * {@link android.view.animation.AccelerateDecelerateInterpolator}
-         *
-         * However, if you call setInterpolator(null) then the default is not used, rather:
-         * {@link LinearInterpolator}
+         * Note: When an Interpolator is not set on either the event or the series the default is
+         * {@link AccelerateDecelerateInterpolator}
          */
-        if (event.getInterpolator() != null) {
-            mValueAnimator.setInterpolator(event.getInterpolator());
-        } else {
-            if (mSeriesItem.getInterpolator() != null) {
-                mValueAnimator.setInterpolator(mSeriesItem.getInterpolator());
-            }
+        Interpolator interpolator = DEFAULT_INTERPOLATOR;
+        if (eventInterpolator != null) {
+            interpolator = eventInterpolator;
+        } else if (mSeriesItem.getInterpolator() != null) {
+            interpolator = mSeriesItem.getInterpolator();
         }
 
-        mValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                float current = Float.valueOf(valueAnimator.getAnimatedValue().toString());
-                mPercentComplete = (current - mPositionStart) / (mPositionEnd - mPositionStart);
-                mPositionCurrentEnd = current;
-
-                /**
-                 * Notify the listeners of position update. This will be the OrbView itself and
-                 * possibly the user who is using a listener to update the progress in an alternative
-                 * manner, ie. displaying text progress %
-                 */
-                for (SeriesItem.SeriesItemListener seriesItemListener : mSeriesItem.getListeners()) {
-                    seriesItemListener.onSeriesItemAnimationProgress(mPercentComplete, mPositionCurrentEnd);
-                }
-            }
-        });
-
-        mValueAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                if (changeColors) {
-                    mColorAnimate = null;
-                }
-
-                event.notifyEndListener();
-            }
-        });
-
-        mValueAnimator.start();
+        startAnimation(AnimationType.ANIMATE_MOVE, event, animationDuration, interpolator);
     }
 
     /**
@@ -265,8 +371,8 @@ abstract public class ChartSeries {
      * animation from the current position
      */
     public void cancelAnimation() {
-        if (mValueAnimator != null) {
-            mValueAnimator.cancel();
+        if (mAnimationType != null) {
+            endAnimation();
         }
         mEventCurrent = null;
 
@@ -293,35 +399,9 @@ abstract public class ChartSeries {
         mPercentComplete = showArc ? 1.0f : 0f;
         mVisible = true;
 
-        final float maxValue = 1.0f;
-        mValueAnimator = ValueAnimator.ofFloat(0, maxValue);
-
-        mValueAnimator.setDuration(event.getEffectDuration());
-        mValueAnimator.setInterpolator(new LinearInterpolator());
-
-        mValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator valueAnimator) {
-
-                float current = Float.valueOf(valueAnimator.getAnimatedValue().toString());
-                mPercentComplete = showArc ? (maxValue - current) : current;
-
-                for (SeriesItem.SeriesItemListener seriesItemListener : mSeriesItem.getListeners()) {
-                    seriesItemListener.onSeriesItemDisplayProgress(mPercentComplete);
-                }
-            }
-        });
-
-        mValueAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                if (event.getEventType() != DecoEvent.EventType.EVENT_EFFECT) {
-                    event.notifyEndListener();
-                }
-            }
-        });
-
-        mValueAnimator.start();
+        mAnimationShow = showArc;
+        // Reveal is always linear, a null interpolator uses the elapsed fraction directly
+        startAnimation(AnimationType.ANIMATE_REVEAL, event, event.getEffectDuration(), null);
     }
 
     /**
@@ -330,6 +410,11 @@ abstract public class ChartSeries {
      * @param event Event to process
      */
     public void startAnimateColorChange(@NonNull final DecoEvent event) {
+        if (!event.isColorSet()) {
+            Log.w(TAG, "Must set new color to start CHANGE_COLOR event");
+            return;
+        }
+
         cancelAnimation();
         event.notifyStartListener();
         mVisible = true;
@@ -337,48 +422,14 @@ abstract public class ChartSeries {
         mDrawMode = event.getEventType();
         mPercentComplete = 0f;
 
-        final boolean changeColors = event.isColorSet();
-        if (changeColors) {
-            mColorAnimate = new ColorAnimate(mSeriesItem.getColor(), event.getColor());
-            mSeriesItem.setColor(event.getColor());
-        } else {
-            Log.w(TAG, "Must set new color to start CHANGE_COLOR event");
-            return;
-        }
-
-        final float maxValue = 1.0f;
-        mValueAnimator = ValueAnimator.ofFloat(0, maxValue);
+        mColorAnimate = new ColorAnimate(mSeriesItem.getColor(), event.getColor());
+        mSeriesItem.setColor(event.getColor());
 
-        mValueAnimator.setDuration(event.getEffectDuration());
-        if (event.getInterpolator() != null) {
-            mValueAnimator.setInterpolator(event.getInterpolator());
-        } else {
-            mValueAnimator.setInterpolator(new LinearInterpolator());
-        }
-
-        mValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                mPercentComplete = Float.valueOf(valueAnimator.getAnimatedValue().toString());
-
-                for (SeriesItem.SeriesItemListener seriesItemListener : mSeriesItem.getListeners()) {
-                    seriesItemListener.onSeriesItemDisplayProgress(mPercentComplete);
-                }
-            }
-        });
-
-        mValueAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                event.notifyEndListener();
-            }
-        });
-
-        mValueAnimator.start();
+        startAnimation(AnimationType.ANIMATE_COLOR_CHANGE, event, event.getEffectDuration(), event.getInterpolator());
     }
 
     /**
-     * Execute an Animation effect by starting the Value Animator
+     * Execute an Animation effect
      *
      * @param event Event to process effect
      * @throws IllegalStateException No effect set in event
@@ -389,9 +440,6 @@ abstract public class ChartSeries {
             throw new IllegalStateException("Unable to execute null effect type");
         }
 
-        // All effects run from 0.0 .. 1.0f in duration
-        final float maxValue = 1.0f;
-
         cancelAnimation();
         event.notifyStartListener();
 
@@ -402,32 +450,259 @@ abstract public class ChartSeries {
 
         mPercentComplete = 0f;
 
-        mValueAnimator = ValueAnimator.ofFloat(0, maxValue);
-        mValueAnimator.setDuration(event.getEffectDuration());
-        Interpolator interpolator = (event.getInterpolator() != null) ? event.getInterpolator() : new LinearInterpolator();
-        mValueAnimator.setInterpolator(interpolator);
-
-        mValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                mPercentComplete = Float.valueOf(valueAnimator.getAnimatedValue().toString());
-                for (SeriesItem.SeriesItemListener seriesItemListener : mSeriesItem.getListeners()) {
-                    seriesItemListener.onSeriesItemDisplayProgress(mPercentComplete);
-                }
-            }
-        });
+        // All effects run from 0.0 .. 1.0f in duration
+        startAnimation(AnimationType.ANIMATE_EFFECT, event, event.getEffectDuration(), event.getInterpolator());
+    }
+
+    /**
+     * Store the state of a new animation. The animation starts on the next frame delivered by
+     * {@link #onAnimationFrame(long)}, so all series started together share the same start time
+     *
+     * @param type         Type of animation to run
+     * @param event        Event that started the animation, or null for a move without an event
+     * @param duration     Duration of the animation in ms. If <= 0 the animation completes on the
+     *                     first frame
+     * @param interpolator Interpolator to apply, or null for linear
+     */
+    private void startAnimation(@NonNull AnimationType type, @Nullable DecoEvent event,
+                                long duration, @Nullable Interpolator interpolator) {
+        mAnimationType = type;
+        mAnimationEvent = event;
+        mAnimationDuration = duration;
+        mAnimationInterpolator = interpolator;
+        mAnimationStartTime = -1;
+        requestFrame();
+    }
+
+    /**
+     * Advance the current animation to the given frame time. This is called once per frame by the
+     * frame clock that owns this series, which then invalidates the view once for all series.
+     *
+     * @param frameTime Time of the frame in ms, as returned by
+     *                  {@link android.view.animation.AnimationUtils#currentAnimationTimeMillis()}
+     * @return true if the series is still animating and requires another frame
+     */
+    public boolean onAnimationFrame(long frameTime) {
+        if (mAnimationType == null) {
+            return false;
+        }
+
+        if (mAnimationStartTime < 0) {
+            mAnimationStartTime = frameTime;
+        }
+
+        float fraction = 1.0f;
+        if (mAnimationDuration > 0) {
+            fraction = Math.min(1.0f, (frameTime - mAnimationStartTime) / (float) mAnimationDuration);
+        }
+        final boolean complete = fraction >= 1.0f;
+
+        if (mAnimationInterpolator != null) {
+            fraction = mAnimationInterpolator.getInterpolation(fraction);
+        }
+
+        switch (mAnimationType) {
+            case ANIMATE_MOVE:
+                mPercentComplete = fraction;
+                mPositionCurrentEnd = mPositionStart + (fraction * (mPositionEnd - mPositionStart));
+
+                /**
+                 * Notify the listeners of position update. This may be the user who is using a
+                 * listener to update the progress in an alternative manner, ie. displaying
+                 * text progress %
+                 */
+                notifyAnimationProgress();
+                break;
+            case ANIMATE_REVEAL:
+                mPercentComplete = mAnimationShow ? (1.0f - fraction) : fraction;
+                notifyDisplayProgress();
+                break;
+            case ANIMATE_COLOR_CHANGE:
+            case ANIMATE_EFFECT:
+                mPercentComplete = fraction;
+                notifyDisplayProgress();
+                break;
+        }
+        markChanged();
+
+        if (complete) {
+            endAnimation();
+        }
+
+        // The end listener may have started a new animation
+        return mAnimationType != null;
+    }
+
+    /**
+     * Is an animation currently being executed by this series
+     *
+     * @return true if animating
+     */
+    public boolean isAnimating() {
+        return mAnimationType != null;
+    }
 
-        mValueAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
+    /**
+     * Finish the current animation, either because it has completed or because it was cancelled,
+     * and notify the listener of the event
+     */
+    private void endAnimation() {
+        final AnimationType type = mAnimationType;
+        final DecoEvent event = mAnimationEvent;
+        mAnimationType = null;
+        mAnimationEvent = null;
+
+        switch (type) {
+            case ANIMATE_MOVE:
+                if (mAnimationChangeColors) {
+                    mColorAnimate = null;
+                }
+                if (event != null) {
+                    event.notifyEndListener();
+                }
+                break;
+            case ANIMATE_REVEAL:
+                if (event.getEventType() != DecoEvent.EventType.EVENT_EFFECT) {
+                    event.notifyEndListener();
+                } else {
+                    event.notifyAnimationEnd();
+                }
+                break;
+            case ANIMATE_COLOR_CHANGE:
+                event.notifyEndListener();
+                break;
+            case ANIMATE_EFFECT:
                 event.notifyEndListener();
                 mDrawMode = DecoEvent.EventType.EVENT_MOVE;
                 mVisible = mEffect.postExecuteVisibility();
                 mEffect = null;
-            }
-        });
+                break;
+        }
+    }
+
+    /**
+     * Set the listener used to request animation frames from the owner of this series. Only one
+     * listener is supported, usually the {@link DecoView} that contains the series
+     *
+     * @param listener Listener to request frames from, or null to remove
+     */
+    public void setFrameRequestListener(@Nullable FrameRequestListener listener) {
+        mFrameRequestListener = listener;
+    }
+
+    /**
+     * Ask the owner of this series to schedule a frame
+     */
+    protected void requestFrame() {
+        markChanged();
+        if (mFrameRequestListener != null) {
+            mFrameRequestListener.onFrameRequested(this);
+        }
+    }
+
+    /**
+     * Calculate the area of the view covered by the series in its current position. Subclasses
+     * that are able to calculate the area should override this method, the default implementation
+     * reports the area as unknown so the complete view is redrawn
+     *
+     * @param bounds Bounds used to draw the series
+     * @param out    Receives the area covered by the series
+     * @return false if the area can not be determined
+     */
+    public boolean calcDrawBounds(@NonNull RectF bounds, @NonNull RectF out) {
+        return false;
+    }
+
+    /**
+     * Record the area covered by the series as it has just been drawn
+     *
+     * @param bounds Bounds used to draw the series
+     */
+    public void updateDrawBounds(@NonNull RectF bounds) {
+        mDrawBoundsKnown = calcDrawBounds(bounds, mDrawBounds);
+        mChanged = false;
+    }
+
+    /**
+     * Add the area that needs to be redrawn for this series to the dirty rect. This is the area
+     * covered when the series was last drawn combined with the area it covers now. Nothing is added
+     * if the series has not changed since it was drawn
+     *
+     * @param bounds Bounds used to draw the series
+     * @param dirty  Rect to add the area to
+     * @return false if the area can not be determined and the complete view must be redrawn
+     */
+    public boolean addDirtyBounds(@NonNull RectF bounds, @NonNull RectF dirty) {
+        if (!mChanged) {
+            return true;
+        }
+        if (!mDrawBoundsKnown || !calcDrawBounds(bounds, mDrawBoundsCurrent)) {
+            return false;
+        }
+        dirty.union(mDrawBounds);
+        dirty.union(mDrawBoundsCurrent);
+        return true;
+    }
+
+    /**
+     * Flag that the series has changed and needs to be redrawn
+     */
+    private void markChanged() {
+        mChanged = true;
+        mDrawVersion++;
+    }
+
+    /**
+     * Is the series in a state where it will be drawn the same way on every frame until it is next
+     * changed. This is the case when there is no animation, color change or effect in progress
+     *
+     * @return true if the series is idle
+     */
+    public boolean isIdle() {
+        return mAnimationType == null && mColorAnimate == null && mEffect == null;
+    }
+
+    /**
+     * Record the current drawing state of the series so that a cached copy of its drawing can be
+     * validated using {@link #isDrawStateChanged()}
+     */
+    public void saveDrawState() {
+        mSavedDrawVersion = mDrawVersion;
+        mSavedColor = mSeriesItem.getColor();
+        mSavedSecondaryColor = mSeriesItem.getSecondaryColor();
+        mSavedLineWidth = mSeriesItem.getLineWidth();
+        mSavedShadowSize = mSeriesItem.getShadowSize();
+        mSavedShadowColor = mSeriesItem.getShadowColor();
+        mSavedEdgeDetailCount = getEdgeDetailCount();
+    }
+
+    /**
+     * Has the series changed in a way that affects drawing since {@link #saveDrawState()} was
+     * called
+     *
+     * @return true if changed
+     */
+    public boolean isDrawStateChanged() {
+        return mSavedDrawVersion != mDrawVersion ||
+                mSavedColor != mSeriesItem.getColor() ||
+                mSavedSecondaryColor != mSeriesItem.getSecondaryColor() ||
+                mSavedLineWidth != mSeriesItem.getLineWidth() ||
+                mSavedShadowSize != mSeriesItem.getShadowSize() ||
+                mSavedShadowColor != mSeriesItem.getShadowColor() ||
+                mSavedEdgeDetailCount != getEdgeDetailCount();
+    }
 
-        mValueAnimator.start();
+    private int getEdgeDetailCount() {
+        return mSeriesItem.getEdgeDetail() != null ? mSeriesItem.getEdgeDetail().size() : 0;
+    }
+
+    /**
+     * Has the series changed since it was last drawn
+     *
+     * @return true if changed
+     */
+    public boolean isChanged() {
+        return mChanged;
     }
 
     /**
@@ -444,24 +719,125 @@ abstract public class ChartSeries {
         mPositionCurrentEnd = mSeriesItem.getInitialValue();
         mPercentComplete = 1.0f;
 
-        mPaint = new Paint();
-        mPaint.setColor(mSeriesItem.getColor());
-        mPaint.setStyle((mSeriesItem.getChartStyle() == SeriesItem.ChartStyle.STYLE_DONUT) ? Paint.Style.STROKE : Paint.Style.FILL);
-        mPaint.setStrokeWidth(mSeriesItem.getLineWidth());
-        mPaint.setStrokeCap(mSeriesItem.getRoundCap() ? Paint.Cap.ROUND : Paint.Cap.BUTT);
-        mPaint.setAntiAlias(true);
+        configurePaint();
 
-        if (mSeriesItem.getShadowSize() > 0) {
-            mPaint.setShadowLayer(mSeriesItem.getShadowSize(), 0, 0, mSeriesItem.getShadowColor());
+        // The gradient depends on the series colors which may have been changed by an event
+        if (mBounds != null) {
+            applyGradientToPaint();
         }
 
-        // We need to reset the bounds for the case we are drawing a gradient and need to recreate
-        // based on the bounds
-        mBounds = null;
+        notifyAnimationProgress();
+        requestFrame();
+    }
+
+    /**
+     * Apply the attributes of the series to the paint. The paint is created once and then
+     * reconfigured in place on each reset so that the native paint and the shader applied to it are
+     * retained. Only the attributes that have changed are set
+     */
+    private void configurePaint() {
+        if (mPaint == null) {
+            mPaint = new Paint();
+            mPaint.setAntiAlias(true);
+        }
 
-        for (SeriesItem.SeriesItemListener seriesItemListener : mSeriesItem.getListeners()) {
-            seriesItemListener.onSeriesItemAnimationProgress(mPercentComplete, mPositionCurrentEnd);
+        if (mPaint.getColor() != mSeriesItem.getColor()) {
+            mPaint.setColor(mSeriesItem.getColor());
+        }
+
+        final Paint.Style style = (mSeriesItem.getChartStyle() == SeriesItem.ChartStyle.STYLE_DONUT) ? Paint.Style.STROKE : Paint.Style.FILL;
+        if (mPaint.getStyle() != style) {
+            mPaint.setStyle(style);
+        }
+
+        if (mPaint.getStrokeWidth() != mSeriesItem.getLineWidth()) {
+            mPaint.setStrokeWidth(mSeriesItem.getLineWidth());
+        }
+
+        final Paint.Cap cap = mSeriesItem.getRoundCap() ? Paint.Cap.ROUND : Paint.Cap.BUTT;
+        if (mPaint.getStrokeCap() != cap) {
+            mPaint.setStrokeCap(cap);
+        }
+
+        // Paint does not expose the shadow layer on all API levels so track what was last applied
+        final float shadowSize = Math.max(0, mSeriesItem.getShadowSize());
+        if (shadowSize != mPaintShadowSize || mSeriesItem.getShadowColor() != mPaintShadowColor) {
+            if (shadowSize > 0) {
+                mPaint.setShadowLayer(shadowSize, 0, 0, mSeriesItem.getShadowColor());
+            } else {
+                mPaint.clearShadowLayer();
+            }
+            mPaintShadowSize = shadowSize;
+            mPaintShadowColor = mSeriesItem.getShadowColor();
+        }
+    }
+
+    /**
+     * Notify the listeners of the current move progress. This is called on every frame of an
+     * animation so an indexed loop is used to avoid allocating an iterator
+     */
+    protected void notifyAnimationProgress() {
+        final ArrayList<SeriesItem.SeriesItemListener> listeners = mSeriesItem.getListeners();
+        if (listeners == null) {
+            return;
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onSeriesItemAnimationProgress(mPercentComplete, mPositionCurrentEnd);
+        }
+    }
+
+    /**
+     * Notify the listeners of the current display progress (hide, show, color change and effects)
+     */
+    protected void notifyDisplayProgress() {
+        final ArrayList<SeriesItem.SeriesItemListener> listeners = mSeriesItem.getListeners();
+        if (listeners == null) {
+            return;
         }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onSeriesItemDisplayProgress(mPercentComplete);
+        }
+    }
+
+    /**
+     * Version of the state of the series that affects drawing, incremented on every change
+     *
+     * @return draw version
+     */
+    int getDrawVersion() {
+        return mDrawVersion;
+    }
+
+    /**
+     * Copy the animated state of the series into a frame. Called on the UI thread
+     *
+     * @param frame frame being captured
+     * @param index index of the series in the frame
+     */
+    void captureFrame(@NonNull FrameSnapshot frame, int index) {
+        frame.setCaptured(index, mDrawVersion, mVisible, mSeriesItem.getSpinClockwise(), mDrawMode,
+                mPositionStart, mPositionEnd, mPositionCurrentEnd, mPercentComplete, getPositionPercent());
+    }
+
+    /**
+     * Calculate the geometry of the series for a frame from the state captured by
+     * {@link #captureFrame(FrameSnapshot, int)}. May be called on a worker thread, so must only
+     * read the captured state and the attributes of the series
+     *
+     * @param frame frame being prepared
+     * @param index index of the series in the frame
+     */
+    void prepareFrame(@NonNull FrameSnapshot frame, int index) {
+    }
+
+    /**
+     * Use the geometry prepared for a frame when the series is next drawn, in place of calculating
+     * it while drawing. Called on the UI thread immediately before {@link #draw(Canvas, RectF)}
+     *
+     * @param frame prepared frame
+     * @param index index of the series in the frame
+     */
+    void applyFrame(@NonNull FrameSnapshot frame, int index) {
     }
 
     @SuppressWarnings("UnusedReturnValue")
@@ -481,7 +857,7 @@ abstract public class ChartSeries {
     }
 
     /**
-     * Draw this series in the current position calculated by the ValueAnimator.
+     * Draw this series in the current position calculated by the current animation frame.
      *
      * @param canvas Canvas used to draw
      * @param bounds Bounds to be used to draw the arc
@@ -606,6 +982,17 @@ abstract public class ChartSeries {
      * @return Current percentage to fill chart (0 .. 1.0f)
      */
     protected float calcCurrentPosition(float start, float end, float min, float max, float percent) {
+        return calcCurrentPosition(start, end, min, max, percent, mDrawMode);
+    }
+
+    /**
+     * Calculates the position of an series for the given progress of the animation and mode of
+     * drawing
+     *
+     * @return Percentage to fill chart (0 .. 1.0f)
+     */
+    protected float calcCurrentPosition(float start, float end, float min, float max, float percent,
+                                        DecoEvent.EventType drawMode) {
         start -= min;
         end -= min;
         max -= min;
@@ -614,9 +1001,9 @@ abstract public class ChartSeries {
             return start / max;
         }
 
-        if ((mDrawMode == DecoEvent.EventType.EVENT_HIDE) ||
-                (mDrawMode == DecoEvent.EventType.EVENT_SHOW) ||
-                (mDrawMode == DecoEvent.EventType.EVENT_COLOR_CHANGE)) {
+        if ((drawMode == DecoEvent.EventType.EVENT_HIDE) ||
+                (drawMode == DecoEvent.EventType.EVENT_SHOW) ||
+                (drawMode == DecoEvent.EventType.EVENT_COLOR_CHANGE)) {
             // When revealing we are not animating the movement, but animating the size and
             // transparency, so treat this as if it is 100% complete already
             percent = 1.0f;
@@ -679,8 +1066,8 @@ abstract public class ChartSeries {
      * Pause any move animation currently in progress
      */
     public boolean pause() {
-        if (mValueAnimator != null && mValueAnimator.isRunning() && !mIsPaused) {
-            mValueAnimator.cancel();
+        if (mAnimationType == AnimationType.ANIMATE_MOVE && !mIsPaused) {
+            endAnimation();
             mIsPaused = true;
             return true;
         }
@@ -694,7 +1081,11 @@ abstract public class ChartSeries {
      */
     public boolean resume() {
         if (isPaused()) {
-            startAnimateMove(mEventCurrent);
+            if (mEventCurrent != null) {
+                startAnimateMove(mEventCurrent);
+            } else {
+                startAnimateMove(mPositionEnd, mMoveDuration);
+            }
             return true;
         }
         return false;
@@ -719,5 +1110,24 @@ abstract public class ChartSeries {
         mPositionEnd = position;
         mPositionCurrentEnd = position;
         mPercentComplete = 1.0f;
+        markChanged();
+    }
+
+    /**
+     * Types of animation that can be executed by a series
+     */
+    private enum AnimationType {
+        ANIMATE_MOVE, /* Move the current position */
+        ANIMATE_REVEAL, /* Hide or show the series */
+        ANIMATE_COLOR_CHANGE, /* Fade between two colors */
+        ANIMATE_EFFECT /* Execute a DecoDrawEffect */
+    }
+
+    /**
+     * Callback interface used by a series to request that the owner schedules an animation frame.
+     * The owner is expected to call {@link #onAnimationFrame(long)} on the next frame
+     */
+    public interface FrameRequestListener {
+        void onFrameRequested(@NonNull ChartSeries chartSeries);
     }
-}
\ No newline at end of file
+}
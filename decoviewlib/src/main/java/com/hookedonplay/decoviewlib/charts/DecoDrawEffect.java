@@ -23,6 +23,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.hookedonplay.decoviewlib.DecoView;
+import com.hookedonplay.decoviewlib.util.FastTrig;
 
 /**
  * Animates some non-core movements for the series of data, such as fades and swirls.
@@ -350,10 +351,12 @@ public class DecoDrawEffect {
     private void drawExplodeLine(@NonNull Canvas canvas, RectF bounds,
                                  float radiusStart, float radiusEnd, float angleInDegrees,
                                  float percentComplete, boolean compatMode) {
-        float startX = (radiusStart * (float) Math.cos(angleInDegrees * Math.PI / 180F)) + bounds.centerX();
-        float startY = (radiusStart * (float) Math.sin(angleInDegrees * Math.PI / 180F)) + bounds.centerY();
-        float endX = (radiusEnd * (float) Math.cos(angleInDegrees * Math.PI / 180F)) + bounds.centerX();
-        float endY = (radiusEnd * (float) Math.sin(angleInDegrees * Math.PI / 180F)) + bounds.centerY();
+        final float cos = FastTrig.cosDegrees(angleInDegrees);
+        final float sin = FastTrig.sinDegrees(angleInDegrees);
+        float startX = (radiusStart * cos) + bounds.centerX();
+        float startY = (radiusStart * sin) + bounds.centerY();
+        float endX = (radiusEnd * cos) + bounds.centerX();
+        float endY = (radiusEnd * sin) + bounds.centerY();
 
         if (!compatMode) {
             canvas.drawLine(startX, startY, endX, endY, mPaintExplode);
@@ -0,0 +1,391 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Chart of many thin concentric rings, such as a radial heatmap with hundreds of rings.
+ * <p/>
+ * Each {@link ChartSeries} has its own {@link SeriesItem}, Paint, listeners and bounds, which is
+ * too much overhead when drawing hundreds of rings. A DenseRingChart stores every ring in
+ * primitive arrays (position, color, line width and inset) and draws them all in one loop with a
+ * single Paint. All rings share one value range, the angles of the view and one animation clock,
+ * and do not support labels, edge details, effects or listeners.
+ * <p/>
+ * Set the chart on a view with {@link com.hookedonplay.decoviewlib.DecoView#setDenseRingChart(DenseRingChart)}.
+ * The rings are drawn beneath any series added to the view.
+ */
+@SuppressWarnings("unused")
+public class DenseRingChart {
+    static final private int INITIAL_CAPACITY = 16;
+    static final private Interpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    private final float mMinValue;
+    private final float mMaxValue;
+    private int mCount;
+    /**
+     * Current, start and target position of each ring while animating
+     */
+    private float[] mPositions = new float[INITIAL_CAPACITY];
+    private float[] mStarts = new float[INITIAL_CAPACITY];
+    private float[] mTargets = new float[INITIAL_CAPACITY];
+    private int[] mColors = new int[INITIAL_CAPACITY];
+    private float[] mLineWidths = new float[INITIAL_CAPACITY];
+    /**
+     * Distance from the edge of the bounds of the view to the center of the line of each ring
+     */
+    private float[] mInsets = new float[INITIAL_CAPACITY];
+
+    private final Paint mPaint = new Paint();
+    private final RectF mOval = new RectF();
+
+    private boolean mAnimating;
+    private long mAnimationStartTime = -1;
+    private long mAnimationDuration;
+    private Interpolator mInterpolator = DEFAULT_INTERPOLATOR;
+    private boolean mChanged = true;
+    private FrameRequestListener mFrameRequestListener;
+
+    /**
+     * Create a chart where all rings share the same range of values
+     *
+     * @param minValue value of an empty ring
+     * @param maxValue value of a full ring
+     */
+    public DenseRingChart(float minValue, float maxValue) {
+        if (minValue >= maxValue) {
+            throw new IllegalArgumentException("minValue must be less than maxValue");
+        }
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mPaint.setAntiAlias(true);
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeCap(Paint.Cap.BUTT);
+    }
+
+    /**
+     * Add a ring to the chart
+     *
+     * @param color     color of the ring
+     * @param lineWidth width of the line of the ring
+     * @param inset     distance from the edge of the bounds of the view to the center of the line
+     * @param value     initial value of the ring
+     * @return index of the ring
+     */
+    public int addRing(int color, float lineWidth, float inset, float value) {
+        ensureCapacity(mCount + 1);
+        mColors[mCount] = color;
+        mLineWidths[mCount] = lineWidth;
+        mInsets[mCount] = inset;
+        mPositions[mCount] = value;
+        mStarts[mCount] = value;
+        mTargets[mCount] = value;
+        markChanged();
+        return mCount++;
+    }
+
+    /**
+     * Add a number of rings of the same width and color, starting at the outside of the view and
+     * moving inward with the given spacing between each ring
+     *
+     * @param count     number of rings to add
+     * @param color     color of the rings
+     * @param lineWidth width of the line of each ring
+     * @param spacing   space between each ring
+     * @return index of the first ring added
+     */
+    public int addRings(int count, int color, float lineWidth, float spacing) {
+        ensureCapacity(mCount + count);
+        final int first = mCount;
+        final float startInset = first > 0 ? mInsets[first - 1] + mLineWidths[first - 1] / 2 + spacing : 0;
+        for (int i = 0; i < count; i++) {
+            addRing(color, lineWidth, startInset + lineWidth / 2 + i * (lineWidth + spacing), mMinValue);
+        }
+        return first;
+    }
+
+    /**
+     * Number of rings in the chart
+     *
+     * @return ring count
+     */
+    public int getRingCount() {
+        return mCount;
+    }
+
+    /**
+     * Set the color of a ring
+     *
+     * @param index index of the ring
+     * @param color new color
+     */
+    public void setColor(int index, int color) {
+        verifyIndex(index);
+        if (mColors[index] != color) {
+            mColors[index] = color;
+            markChanged();
+        }
+    }
+
+    /**
+     * Set the colors of all rings
+     *
+     * @param colors color of each ring, indexed the same as the rings
+     */
+    public void setColors(@NonNull int[] colors) {
+        if (colors.length > mCount) {
+            throw new IllegalArgumentException("More colors than rings (Colors: " + colors.length + " Ring Count: " + mCount + ")");
+        }
+        System.arraycopy(colors, 0, mColors, 0, colors.length);
+        markChanged();
+    }
+
+    /**
+     * Current value of a ring
+     *
+     * @param index index of the ring
+     * @return current value
+     */
+    public float getValue(int index) {
+        verifyIndex(index);
+        return mPositions[index];
+    }
+
+    /**
+     * Move a ring immediately to a new value without animation
+     *
+     * @param index index of the ring
+     * @param value new value
+     */
+    public void setValue(int index, float value) {
+        verifyIndex(index);
+        mPositions[index] = value;
+        mStarts[index] = value;
+        mTargets[index] = value;
+        markChanged();
+    }
+
+    /**
+     * Set the interpolator used when animating the rings
+     *
+     * @param interpolator interpolator, or null for the default
+     */
+    public void setInterpolator(@Nullable Interpolator interpolator) {
+        mInterpolator = interpolator != null ? interpolator : DEFAULT_INTERPOLATOR;
+    }
+
+    /**
+     * Use rounded ends on all rings
+     *
+     * @param roundCap true to round the ends of the rings
+     */
+    public void setRoundCap(boolean roundCap) {
+        mPaint.setStrokeCap(roundCap ? Paint.Cap.ROUND : Paint.Cap.BUTT);
+        markChanged();
+    }
+
+    /**
+     * Animate all rings to new values. All rings start on the same frame and share one duration.
+     * If the rings are already animating they move from their current values
+     *
+     * @param values   new value of each ring, indexed the same as the rings. A value of
+     *                 {@link Float#NaN} leaves that ring at its current value
+     * @param duration duration of the animation in ms. If 0 the rings are moved immediately
+     */
+    public void animateTo(@NonNull float[] values, long duration) {
+        if (values.length > mCount) {
+            throw new IllegalArgumentException("More values than rings (Values: " + values.length + " Ring Count: " + mCount + ")");
+        }
+        for (int i = 0; i < mCount; i++) {
+            mStarts[i] = mPositions[i];
+            if (i < values.length && !Float.isNaN(values[i])) {
+                mTargets[i] = values[i];
+            } else {
+                mTargets[i] = mPositions[i];
+            }
+        }
+
+        if (duration <= 0) {
+            System.arraycopy(mTargets, 0, mPositions, 0, mCount);
+            mAnimating = false;
+        } else {
+            mAnimating = true;
+            mAnimationStartTime = -1;
+            mAnimationDuration = duration;
+            requestFrame();
+            return;
+        }
+        markChanged();
+    }
+
+    /**
+     * Advance the animation of all rings to the given frame time
+     *
+     * @param frameTime time of the frame in ms
+     * @return true if still animating and another frame is required
+     */
+    public boolean onAnimationFrame(long frameTime) {
+        if (!mAnimating) {
+            return false;
+        }
+        if (mAnimationStartTime < 0) {
+            mAnimationStartTime = frameTime;
+        }
+
+        final float fraction = Math.min(1.0f, (frameTime - mAnimationStartTime) / (float) mAnimationDuration);
+        final float interpolated = mInterpolator.getInterpolation(fraction);
+        for (int i = 0; i < mCount; i++) {
+            mPositions[i] = mStarts[i] + (interpolated * (mTargets[i] - mStarts[i]));
+        }
+        mChanged = true;
+
+        if (fraction >= 1.0f) {
+            mAnimating = false;
+        }
+        return mAnimating;
+    }
+
+    /**
+     * Is the chart animating
+     *
+     * @return true if animating
+     */
+    public boolean isAnimating() {
+        return mAnimating;
+    }
+
+    /**
+     * Has the chart changed since it was last drawn
+     *
+     * @return true if changed
+     */
+    public boolean isChanged() {
+        return mChanged;
+    }
+
+    /**
+     * Draw all rings
+     *
+     * @param canvas     Canvas used to draw
+     * @param bounds     Bounds of the view
+     * @param angleStart angle in degrees the rings start from
+     * @param angleSweep total angle of a full ring in degrees
+     */
+    public void draw(@NonNull Canvas canvas, @NonNull RectF bounds, float angleStart, float angleSweep) {
+        mChanged = false;
+        final float range = mMaxValue - mMinValue;
+        int color = mPaint.getColor();
+        float lineWidth = mPaint.getStrokeWidth();
+
+        for (int i = 0; i < mCount; i++) {
+            float fraction = (mPositions[i] - mMinValue) / range;
+            if (fraction <= 0f) {
+                continue;
+            }
+            if (fraction > 1f) {
+                fraction = 1f;
+            }
+
+            final float inset = mInsets[i];
+            mOval.set(bounds.left + inset, bounds.top + inset, bounds.right - inset, bounds.bottom - inset);
+            if (mOval.width() <= 0 || mOval.height() <= 0) {
+                continue;
+            }
+
+            // Only change the paint when required as most rings share the same attributes
+            if (mColors[i] != color) {
+                color = mColors[i];
+                mPaint.setColor(color);
+            }
+            if (mLineWidths[i] != lineWidth) {
+                lineWidth = mLineWidths[i];
+                mPaint.setStrokeWidth(lineWidth);
+            }
+            canvas.drawArc(mOval, angleStart, fraction * angleSweep, false, mPaint);
+        }
+    }
+
+    /**
+     * Set the listener used to request animation frames, usually the view containing the chart
+     *
+     * @param listener Listener to request frames from, or null to remove
+     */
+    public void setFrameRequestListener(@Nullable FrameRequestListener listener) {
+        mFrameRequestListener = listener;
+    }
+
+    private void requestFrame() {
+        mChanged = true;
+        if (mFrameRequestListener != null) {
+            mFrameRequestListener.onFrameRequested(this);
+        }
+    }
+
+    /**
+     * A change that does not start an animation only needs the chart to be drawn again. While
+     * animating the change is drawn on the next frame
+     */
+    private void markChanged() {
+        mChanged = true;
+        if (!mAnimating && mFrameRequestListener != null) {
+            mFrameRequestListener.onInvalidateRequested(this);
+        }
+    }
+
+    private void verifyIndex(int index) {
+        if (index < 0 || index >= mCount) {
+            throw new IllegalArgumentException("Invalid index: Position out of range (Index: " + index + " Ring Count: " + mCount + ")");
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (mPositions.length >= capacity) {
+            return;
+        }
+        final int size = Math.max(capacity, mPositions.length * 2);
+        mPositions = copyOf(mPositions, size);
+        mStarts = copyOf(mStarts, size);
+        mTargets = copyOf(mTargets, size);
+        mLineWidths = copyOf(mLineWidths, size);
+        mInsets = copyOf(mInsets, size);
+        int[] colors = new int[size];
+        System.arraycopy(mColors, 0, colors, 0, mCount);
+        mColors = colors;
+    }
+
+    private float[] copyOf(@NonNull float[] array, int size) {
+        float[] copy = new float[size];
+        System.arraycopy(array, 0, copy, 0, mCount);
+        return copy;
+    }
+
+    /**
+     * Callback interface used by the chart to request that the owner schedules an animation frame
+     * or redraws the chart
+     */
+    public interface FrameRequestListener {
+        void onFrameRequested(@NonNull DenseRingChart chart);
+
+        void onInvalidateRequested(@NonNull DenseRingChart chart);
+    }
+}
@@ -16,6 +16,7 @@
 package com.hookedonplay.decoviewlib.charts;
 
 import android.graphics.Path;
+import android.graphics.RectF;
 import android.support.annotation.NonNull;
 
 /**
@@ -48,6 +49,14 @@ public class EdgeDetail {
      * Internal clip path used to apply the effect to only {@link #mRatio} of the line
      */
     private Path mClipPath;
+    /**
+     * Oval used to build {@link #mClipPath}
+     */
+    private final EdgeOval mClipOval = new EdgeOval();
+    /**
+     * Oval used to draw the edge as a stroke without clipping
+     */
+    private final EdgeOval mStrokeOval = new EdgeOval();
 
     @SuppressWarnings("unused")
     public EdgeDetail(@NonNull EdgeType edgeType, int color, float percentRatio) {
@@ -63,7 +72,6 @@ public class EdgeDetail {
         mEdgeType = edgeDetail.mEdgeType;
         mColor = edgeDetail.mColor;
         mRatio = edgeDetail.mRatio;
-        mClipPath = null;
     }
 
     /**
@@ -96,21 +104,76 @@ public class EdgeDetail {
     /**
      * Clip path used when drawing the edge effect. Even though each individual chart type draws its
      * own edge effect, we store the clip path in this object so it does not need to be reallocated
-     * on each draw
+     * on each draw. The path is only rebuilt when the bounds or inset change, for example when the
+     * view is resized
      *
+     * @param bounds Bounds of the series
+     * @param inset  Amount to inset the bounds to create the clipping oval
      * @return Path used for clipping edge effect
      */
-    Path getClipPath() {
+    Path getClipPath(@NonNull RectF bounds, float inset) {
+        if (mClipPath == null) {
+            mClipPath = new Path();
+        }
+        if (mClipOval.update(bounds, inset)) {
+            mClipPath.reset();
+            mClipPath.addOval(mClipOval.getOval(), Path.Direction.CW);
+        }
         return mClipPath;
     }
 
     /**
-     * Set the clip path for the edge effect
+     * Oval used to draw the edge effect as an arc stroke rather than clipping the series. The oval
+     * is only recalculated when the bounds or inset change
      *
-     * @param clipPath Path for clipping
+     * @param bounds Bounds of the series
+     * @param inset  Amount to inset the bounds to place the stroke on the edge of the series
+     * @return Oval to draw the edge stroke
+     */
+    RectF getStrokeOval(@NonNull RectF bounds, float inset) {
+        mStrokeOval.update(bounds, inset);
+        return mStrokeOval.getOval();
+    }
+
+    /**
+     * Oval calculated by insetting the bounds of a series. Holds the bounds and inset used so the
+     * oval is only recalculated when either changes
      */
-    void setClipPath(Path clipPath) {
-        mClipPath = clipPath;
+    static private final class EdgeOval {
+        private final RectF mBounds = new RectF();
+        private final RectF mOval = new RectF();
+        private float mInset;
+        private boolean mValid;
+
+        /**
+         * Recalculate the oval if the bounds or inset have changed
+         *
+         * @return true if the oval was recalculated
+         */
+        boolean update(@NonNull RectF bounds, float inset) {
+            if (mValid && mInset == inset && mBounds.equals(bounds)) {
+                return false;
+            }
+            mBounds.set(bounds);
+            mInset = inset;
+            mOval.set(bounds);
+            mOval.inset(inset, inset);
+            mValid = true;
+            return true;
+        }
+
+        RectF getOval() {
+            return mOval;
+        }
+    }
+
+    /**
+     * Method used to draw the edge effect
+     */
+    @SuppressWarnings("unused")
+    public enum RenderMode {
+        RENDER_CLIP_WHEN_REQUIRED, /* Default: Stroke the edge, clip only the rounded ends of a partial arc */
+        RENDER_STROKE /* Never clip. Rounded ends are approximated by the rounded ends of the edge */
     }
 
     /**
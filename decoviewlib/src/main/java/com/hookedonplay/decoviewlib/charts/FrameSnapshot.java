@@ -0,0 +1,563 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import java.util.List;
+
+/**
+ * Geometry and labels of every series in a view for one frame.
+ * <p/>
+ * Building a frame is split into three stages:
+ * <ol>
+ * <li>{@link #capture} copies the animated state of each series and the label it displays. This
+ * must be called on the UI thread and only copies a few values per series</li>
+ * <li>{@link #prepare(FrameSnapshot)} calculates the sweep angles of each series, formats the
+ * text of each label and positions the labels so they do not overlap. This only reads and writes
+ * state owned by the frame, so it may be called on a worker thread while another frame is
+ * drawn</li>
+ * <li>{@link #apply(int)} and {@link #drawLabels(Canvas)} hand the prepared frame to the series
+ * and draw the labels on the UI thread, which then only issues canvas calls</li>
+ * </ol>
+ * Once prepared the frame is not modified until it is captured again, so the owner keeps more
+ * than one frame to prepare the next frame while the last is drawn.
+ */
+public class FrameSnapshot {
+    private int mCount;
+    private int mSeriesListVersion = -1;
+    private int mWidth;
+    private int mHeight;
+    private final RectF mBounds = new RectF();
+    private int mTotalAngle;
+    private int mRotateAngle;
+    private boolean mPrepared;
+
+    /**
+     * State of each series copied by {@link #capture}
+     */
+    private ChartSeries[] mSeries = new ChartSeries[0];
+    private int[] mDrawVersions = new int[0];
+    private boolean[] mVisible = new boolean[0];
+    private boolean[] mSpinClockwise = new boolean[0];
+    private DecoEvent.EventType[] mDrawModes = new DecoEvent.EventType[0];
+    private float[] mPositionStarts = new float[0];
+    private float[] mPositionEnds = new float[0];
+    private float[] mPositions = new float[0];
+    private float[] mPercentCompletes = new float[0];
+    private float[] mPositionPercents = new float[0];
+    private float[] mAngleStarts = new float[0];
+    private float[] mAngleSweeps = new float[0];
+    private float[] mMinSweepAngles = new float[0];
+    private float[] mMinValues = new float[0];
+    private float[] mMaxValues = new float[0];
+    private boolean[] mDrawAsPoint = new boolean[0];
+
+    /**
+     * Label of each series copied by {@link #capture}, null if the series has no visible label.
+     * Each frame formats and measures the text with its own copy of the formatter and text paint
+     * of the label, which are only replaced when the label or its text is changed
+     */
+    private SeriesLabel[] mSeriesLabels = new SeriesLabel[0];
+    private LabelFormatter[] mLabelFormatterSources = new LabelFormatter[0];
+    private LabelFormatter[] mLabelFormatters = new LabelFormatter[0];
+    private Paint[] mLabelPaints = new Paint[0];
+    private float[] mLabelTextWidths = new float[0];
+    private int[] mLabelTextHeights = new int[0];
+
+    /**
+     * Geometry of each series calculated by {@link #prepare(FrameSnapshot)}
+     */
+    private boolean[] mHasArc = new boolean[0];
+    private float[] mArcStarts = new float[0];
+    private float[] mArcSweeps = new float[0];
+    /**
+     * Receives the angles of the arc being prepared
+     */
+    private final float[] mArcScratch = new float[2];
+
+    /**
+     * Labels displayed in the frame, in drawing order
+     */
+    private boolean mLabelsSupported;
+    private int mLabelCount;
+    private SeriesLabel[] mLabels = new SeriesLabel[0];
+    private int[] mLabelSeries = new int[0];
+    private float[] mLabelAngles = new float[0];
+    private RectF[] mLabelRects = new RectF[0];
+    private int[] mLabelOrder = new int[0];
+    private int[] mLabelActive = new int[0];
+    private final RectF mLabelUnion = new RectF();
+    private boolean mLabelLayoutUpdated;
+
+    /**
+     * Copy the state of all series for the frame. Must be called on the UI thread
+     *
+     * @param chartSeries       all series in the view, in drawing order
+     * @param seriesListVersion version of the list of series, changed when series are added,
+     *                          removed or moved
+     * @param width             width of the canvas the frame is drawn on
+     * @param height            height of the canvas the frame is drawn on
+     * @param bounds            bounds used to draw the series
+     * @param totalAngle        total angle of the view in degrees
+     * @param rotateAngle       rotation of the start of the view in degrees
+     */
+    public void capture(@NonNull List<ChartSeries> chartSeries, int seriesListVersion,
+                        int width, int height, @NonNull RectF bounds, int totalAngle, int rotateAngle) {
+        final int count = chartSeries.size();
+        ensureCapacity(count);
+        for (int i = count; i < mCount; i++) {
+            mSeries[i] = null;
+            mSeriesLabels[i] = null;
+        }
+        mCount = count;
+        mSeriesListVersion = seriesListVersion;
+        mWidth = width;
+        mHeight = height;
+        mBounds.set(bounds);
+        mTotalAngle = totalAngle;
+        mRotateAngle = rotateAngle;
+        mPrepared = false;
+
+        for (int i = 0; i < count; i++) {
+            final ChartSeries series = chartSeries.get(i);
+            mSeries[i] = series;
+            series.captureFrame(this, i);
+            captureLabel(i, series.getSeriesItem().getSeriesLabel());
+        }
+    }
+
+    /**
+     * Copy the label of a series. The formatter and text paint are copied again only when they
+     * have been replaced since the last capture
+     */
+    private void captureLabel(int index, @Nullable SeriesLabel label) {
+        if (label == null || !label.isVisible()) {
+            mSeriesLabels[index] = null;
+            return;
+        }
+        final LabelFormatter formatter = label.getFormatter();
+        if (mLabelFormatterSources[index] != formatter) {
+            mLabelFormatterSources[index] = formatter;
+            mLabelFormatters[index] = new LabelFormatter(formatter);
+            mLabelTextWidths[index] = -1;
+        }
+        if (mSeriesLabels[index] != label) {
+            mLabelPaints[index] = new Paint(label.getTextPaint());
+            mLabelTextWidths[index] = -1;
+        }
+        mSeriesLabels[index] = label;
+        mLabelTextHeights[index] = label.getTextHeight();
+    }
+
+    void setCaptured(int index, int drawVersion, boolean visible, boolean spinClockwise,
+                     @Nullable DecoEvent.EventType drawMode, float positionStart, float positionEnd,
+                     float position, float percentComplete, float positionPercent) {
+        mDrawVersions[index] = drawVersion;
+        mVisible[index] = visible;
+        mSpinClockwise[index] = spinClockwise;
+        mDrawModes[index] = drawMode;
+        mPositionStarts[index] = positionStart;
+        mPositionEnds[index] = positionEnd;
+        mPositions[index] = position;
+        mPercentCompletes[index] = percentComplete;
+        mPositionPercents[index] = positionPercent;
+    }
+
+    void setCapturedArc(int index, float angleStart, float angleSweep, float minSweepAngle,
+                        float minValue, float maxValue, boolean drawAsPoint) {
+        mAngleStarts[index] = angleStart;
+        mAngleSweeps[index] = angleSweep;
+        mMinSweepAngles[index] = minSweepAngle;
+        mMinValues[index] = minValue;
+        mMaxValues[index] = maxValue;
+        mDrawAsPoint[index] = drawAsPoint;
+    }
+
+    /**
+     * Calculate the geometry of every series and the text and position of every label from the
+     * captured state. May be called on any thread
+     *
+     * @param previous the frame prepared before this one, used to skip the label layout when no
+     *                 label has moved or changed. May be null
+     */
+    public void prepare(@Nullable FrameSnapshot previous) {
+        mLabelsSupported = true;
+        for (int i = 0; i < mCount; i++) {
+            mHasArc[i] = false;
+            mSeries[i].prepareFrame(this, i);
+            // labels unsupported if one or more series run anticlockwise
+            mLabelsSupported &= !mVisible[i] || mSpinClockwise[i];
+        }
+
+        prepareLabels(previous);
+        mPrepared = true;
+    }
+
+    /**
+     * Determine which labels are displayed, format their text and calculate their positions. A label
+     * is only displayed if its series is not covered by the series drawn after it, so the series are
+     * visited in reverse keeping the maximum position of those already visited
+     */
+    private void prepareLabels(@Nullable FrameSnapshot previous) {
+        final int previousCount = mLabelCount;
+        mLabelCount = 0;
+        mLabelLayoutUpdated = false;
+        mLabelUnion.setEmpty();
+        if (!mLabelsSupported) {
+            for (int i = 0; i < previousCount; i++) {
+                mLabels[i] = null;
+            }
+            return;
+        }
+
+        float max = 0.0f;
+        int count = 0;
+        for (int i = mCount - 1; i >= 0; i--) {
+            final float positionPercent = mPositionPercents[i];
+            if (mVisible[i]) {
+                final SeriesLabel label = mSeriesLabels[i];
+                if (label != null && max < positionPercent) {
+                    mLabels[count] = label;
+                    mLabelSeries[count] = i;
+                    mLabelAngles[count] = calcLabelAngle(positionPercent, max);
+                    count++;
+                }
+                if (max < positionPercent) {
+                    max = positionPercent;
+                }
+            }
+        }
+        // Labels were found in reverse, draw them in the order of their series
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            final SeriesLabel label = mLabels[i];
+            mLabels[i] = mLabels[j];
+            mLabels[j] = label;
+            final int series = mLabelSeries[i];
+            mLabelSeries[i] = mLabelSeries[j];
+            mLabelSeries[j] = series;
+            final float angle = mLabelAngles[i];
+            mLabelAngles[i] = mLabelAngles[j];
+            mLabelAngles[j] = angle;
+        }
+        for (int i = count; i < previousCount; i++) {
+            mLabels[i] = null;
+        }
+        mLabelCount = count;
+
+        boolean changed = previous == null || previous == this || !previous.mPrepared || previous.mLabelCount != count ||
+                previous.mWidth != mWidth || previous.mHeight != mHeight || !previous.mBounds.equals(mBounds);
+        for (int i = 0; i < count; i++) {
+            final SeriesLabel label = mLabels[i];
+            final int series = mLabelSeries[i];
+            // The text of every label is kept current even if the layout has already changed
+            final LabelFormatter formatter = mLabelFormatters[series];
+            if (formatter.format(mPositionPercents[series], mPositions[series]) || mLabelTextWidths[series] < 0) {
+                mLabelTextWidths[series] = mLabelPaints[series].measureText(formatter.getBuffer(), 0, formatter.getLength());
+            }
+            if (!changed && (previous.mLabels[i] != label || previous.mLabelAngles[i] != mLabelAngles[i] ||
+                    !formatter.hasSameText(previous.mLabelFormatters[previous.mLabelSeries[i]]))) {
+                changed = true;
+            }
+        }
+
+        if (!changed) {
+            for (int i = 0; i < count; i++) {
+                mLabelRects[i].set(previous.mLabelRects[i]);
+            }
+            mLabelUnion.set(previous.mLabelUnion);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            final int series = mLabelSeries[i];
+            mLabels[i].layout(mWidth, mHeight, mBounds, mLabelAngles[i],
+                    mLabelTextWidths[series], mLabelTextHeights[series], mLabelRects[i]);
+            mLabelOrder[i] = i;
+        }
+        LabelLayout.resolveOverlaps(mLabelRects, mLabelOrder, mLabelActive, count, mHeight,
+                LabelLayout.LABEL_SPACING);
+        for (int i = 0; i < count; i++) {
+            mLabelUnion.union(mLabelRects[i]);
+        }
+        mLabelLayoutUpdated = true;
+    }
+
+    /**
+     * Determine where a label should be displayed given its position and the maximum position of
+     * all series drawn after it
+     *
+     * @param positionPercent position of the series of the label
+     * @param max             maximum position of the visible series drawn after the series
+     * @return 0f .. 1.0f to indicate position on circle
+     */
+    private float calcLabelAngle(float positionPercent, float max) {
+        // Adjust for incomplete circles
+        float adjusted = ((positionPercent + max) / 2) * ((float) mTotalAngle / 360f);
+
+        // Adjust for rotation of start point
+        float adjust = adjusted + (((float) mRotateAngle + 90f) / 360f);
+
+        // Normalize
+        while (adjust > 1.0f) {
+            adjust -= 1.0f;
+        }
+        return adjust;
+    }
+
+    /**
+     * Is the frame prepared for the given state of the view. If not the frame must be captured and
+     * prepared again before it is drawn
+     *
+     * @param seriesListVersion current version of the list of series
+     * @param width             width of the canvas
+     * @param height            height of the canvas
+     * @param bounds            bounds used to draw the series
+     * @return true if the frame can be drawn
+     */
+    public boolean matches(int seriesListVersion, int width, int height, @NonNull RectF bounds) {
+        return mPrepared && mSeriesListVersion == seriesListVersion && mWidth == width &&
+                mHeight == height && mBounds.equals(bounds);
+    }
+
+    /**
+     * Has any series changed since the frame was captured. Must be called on the UI thread
+     *
+     * @return true if the frame is out of date
+     */
+    public boolean isStale() {
+        for (int i = 0; i < mCount; i++) {
+            if (mSeries[i].getDrawVersion() != mDrawVersions[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hand the prepared geometry of a series to the series before it is drawn
+     *
+     * @param index index of the series
+     */
+    public void apply(int index) {
+        mSeries[index].applyFrame(this, index);
+    }
+
+    /**
+     * Draw all labels in the positions prepared for the frame
+     *
+     * @param canvas Canvas used to draw
+     */
+    public void drawLabels(@NonNull Canvas canvas) {
+        for (int i = 0; i < mLabelCount; i++) {
+            final LabelFormatter formatter = mLabelFormatters[mLabelSeries[i]];
+            mLabels[i].drawPrepared(canvas, mLabelRects[i], formatter.getBuffer(), formatter.getLength());
+        }
+    }
+
+    /**
+     * Number of labels displayed in the frame
+     *
+     * @return number of labels
+     */
+    public int getLabelCount() {
+        return mLabelCount;
+    }
+
+    /**
+     * Area covered by all labels in the frame
+     *
+     * @return area covered, empty if there are no labels
+     */
+    @NonNull
+    public RectF getLabelUnion() {
+        return mLabelUnion;
+    }
+
+    /**
+     * Was the position of the labels calculated for this frame, rather than copied from the
+     * previous frame
+     *
+     * @return true if the label layout was calculated
+     */
+    public boolean isLabelLayoutUpdated() {
+        return mLabelLayoutUpdated;
+    }
+
+    /**
+     * Index of the series of a displayed label
+     *
+     * @param label index of the label, 0 .. {@link #getLabelCount()} - 1
+     * @return index of the series
+     */
+    int getLabelSeries(int label) {
+        return mLabelSeries[label];
+    }
+
+    /**
+     * Position of a displayed label on the circle
+     *
+     * @param label index of the label, 0 .. {@link #getLabelCount()} - 1
+     * @return 0f .. 1.0f to indicate position on circle
+     */
+    float getLabelAngle(int label) {
+        return mLabelAngles[label];
+    }
+
+    DecoEvent.EventType getDrawMode(int index) {
+        return mDrawModes[index];
+    }
+
+    float getPositionStart(int index) {
+        return mPositionStarts[index];
+    }
+
+    float getPositionEnd(int index) {
+        return mPositionEnds[index];
+    }
+
+    float getPercentComplete(int index) {
+        return mPercentCompletes[index];
+    }
+
+    boolean isVisible(int index) {
+        return mVisible[index];
+    }
+
+    boolean isSpinClockwise(int index) {
+        return mSpinClockwise[index];
+    }
+
+    float getAngleStart(int index) {
+        return mAngleStarts[index];
+    }
+
+    float getAngleSweep(int index) {
+        return mAngleSweeps[index];
+    }
+
+    float getMinSweepAngle(int index) {
+        return mMinSweepAngles[index];
+    }
+
+    float getMinValue(int index) {
+        return mMinValues[index];
+    }
+
+    float getMaxValue(int index) {
+        return mMaxValues[index];
+    }
+
+    boolean isDrawAsPoint(int index) {
+        return mDrawAsPoint[index];
+    }
+
+    /**
+     * Array owned by the frame that receives the start and sweep angles of the arc being prepared
+     *
+     * @return array of two angles
+     */
+    @NonNull
+    float[] getArcScratch() {
+        return mArcScratch;
+    }
+
+    void setArc(int index, boolean hasArc, float start, float sweep) {
+        mHasArc[index] = hasArc;
+        mArcStarts[index] = start;
+        mArcSweeps[index] = sweep;
+    }
+
+    boolean hasArc(int index) {
+        return mHasArc[index];
+    }
+
+    float getArcStart(int index) {
+        return mArcStarts[index];
+    }
+
+    float getArcSweep(int index) {
+        return mArcSweeps[index];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (mSeries.length >= capacity) {
+            return;
+        }
+        final ChartSeries[] series = new ChartSeries[capacity];
+        System.arraycopy(mSeries, 0, series, 0, mCount);
+        mSeries = series;
+        mDrawVersions = new int[capacity];
+        mVisible = new boolean[capacity];
+        mSpinClockwise = new boolean[capacity];
+        mDrawModes = new DecoEvent.EventType[capacity];
+        mPositionStarts = new float[capacity];
+        mPositionEnds = new float[capacity];
+        mPositions = new float[capacity];
+        mPercentCompletes = new float[capacity];
+        mPositionPercents = new float[capacity];
+        mAngleStarts = new float[capacity];
+        mAngleSweeps = new float[capacity];
+        mMinSweepAngles = new float[capacity];
+        mMinValues = new float[capacity];
+        mMaxValues = new float[capacity];
+        mDrawAsPoint = new boolean[capacity];
+        mHasArc = new boolean[capacity];
+        mArcStarts = new float[capacity];
+        mArcSweeps = new float[capacity];
+
+        final SeriesLabel[] labels = new SeriesLabel[capacity];
+        System.arraycopy(mLabels, 0, labels, 0, mLabelCount);
+        mLabels = labels;
+        final int[] labelSeries = new int[capacity];
+        System.arraycopy(mLabelSeries, 0, labelSeries, 0, mLabelCount);
+        mLabelSeries = labelSeries;
+        final float[] labelAngles = new float[capacity];
+        System.arraycopy(mLabelAngles, 0, labelAngles, 0, mLabelCount);
+        mLabelAngles = labelAngles;
+        // Copies of the label of each series are kept, so they are not created again
+        final SeriesLabel[] seriesLabels = new SeriesLabel[capacity];
+        System.arraycopy(mSeriesLabels, 0, seriesLabels, 0, mSeriesLabels.length);
+        mSeriesLabels = seriesLabels;
+        final LabelFormatter[] formatterSources = new LabelFormatter[capacity];
+        System.arraycopy(mLabelFormatterSources, 0, formatterSources, 0, mLabelFormatterSources.length);
+        mLabelFormatterSources = formatterSources;
+        final LabelFormatter[] formatters = new LabelFormatter[capacity];
+        System.arraycopy(mLabelFormatters, 0, formatters, 0, mLabelFormatters.length);
+        mLabelFormatters = formatters;
+        final Paint[] labelPaints = new Paint[capacity];
+        System.arraycopy(mLabelPaints, 0, labelPaints, 0, mLabelPaints.length);
+        mLabelPaints = labelPaints;
+        final float[] textWidths = new float[capacity];
+        System.arraycopy(mLabelTextWidths, 0, textWidths, 0, mLabelTextWidths.length);
+        mLabelTextWidths = textWidths;
+        mLabelTextHeights = new int[capacity];
+        final RectF[] labelRects = new RectF[capacity];
+        System.arraycopy(mLabelRects, 0, labelRects, 0, mLabelRects.length);
+        for (int i = mLabelRects.length; i < capacity; i++) {
+            labelRects[i] = new RectF();
+        }
+        mLabelRects = labelRects;
+        mLabelOrder = new int[capacity];
+        mLabelActive = new int[capacity];
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formats the text of a {@link SeriesLabel} into a reusable char buffer without allocating.
+ * <p/>
+ * The label template is parsed once. Templates containing a single %f specifier with an optional
+ * precision, such as "Goal %.0f%%" or "%.1f min to goal", are formatted directly. The text is only
+ * formatted again when the value displayed at the precision of the label changes. Any other
+ * template is passed to {@link String#format(String, Object...)} as before.
+ */
+class LabelFormatter {
+    static final private int DEFAULT_PRECISION = 6;
+    static final private int MAX_PRECISION = 9;
+    static final private long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L,
+            10000000L, 100000000L, 1000000000L};
+
+    private final String mTemplate;
+    /**
+     * Template contains %% so the percentage complete is displayed rather than the position
+     */
+    private final boolean mPercent;
+    /**
+     * Template can not be formatted directly and String.format is used
+     */
+    private final boolean mUseStringFormat;
+    /**
+     * Template contains a number to be formatted
+     */
+    private final boolean mHasNumber;
+    private final char[] mPrefix;
+    private final char[] mSuffix;
+    private final int mPrecision;
+    private final char mDecimalSeparator;
+
+    private char[] mBuffer;
+    private int mLength;
+    /**
+     * Value last formatted, scaled by the precision and rounded
+     */
+    private long mLastUnits;
+    private boolean mLastNegative;
+    private boolean mFormatted;
+
+    /**
+     * Create a formatter for the same template as another formatter, with its own buffer
+     *
+     * @param source formatter to copy the template from
+     */
+    LabelFormatter(@NonNull LabelFormatter source) {
+        this(source.mTemplate);
+    }
+
+    LabelFormatter(@NonNull String template) {
+        mTemplate = template;
+        mPercent = template.contains("%%");
+
+        final StringBuilder prefix = new StringBuilder();
+        final StringBuilder suffix = new StringBuilder();
+        StringBuilder current = prefix;
+        boolean hasNumber = false;
+        boolean valid = true;
+        int precision = DEFAULT_PRECISION;
+
+        final int length = template.length();
+        for (int i = 0; i < length && valid; i++) {
+            final char c = template.charAt(i);
+            if (c != '%') {
+                current.append(c);
+                continue;
+            }
+            if (++i >= length) {
+                valid = false;
+                break;
+            }
+            if (template.charAt(i) == '%') {
+                current.append('%');
+                continue;
+            }
+            if (hasNumber) {
+                // Only a single value is passed to the template
+                valid = false;
+                break;
+            }
+
+            // Parse [.precision]f
+            if (template.charAt(i) == '.') {
+                int digits = 0;
+                precision = 0;
+                while (++i < length && Character.isDigit(template.charAt(i))) {
+                    precision = precision * 10 + (template.charAt(i) - '0');
+                    digits++;
+                }
+                if (digits == 0 || precision > MAX_PRECISION) {
+                    valid = false;
+                    break;
+                }
+            }
+            if (i >= length || template.charAt(i) != 'f') {
+                valid = false;
+                break;
+            }
+            hasNumber = true;
+            current = suffix;
+        }
+
+        final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+        mDecimalSeparator = symbols.getDecimalSeparator();
+        if (symbols.getZeroDigit() != '0') {
+            valid = false;
+        }
+
+        mUseStringFormat = !valid;
+        mHasNumber = hasNumber;
+        mPrecision = precision;
+        mPrefix = prefix.toString().toCharArray();
+        mSuffix = suffix.toString().toCharArray();
+        mBuffer = new char[mPrefix.length + mSuffix.length + 32];
+
+        if (!mHasNumber && !mUseStringFormat) {
+            System.arraycopy(mPrefix, 0, mBuffer, 0, mPrefix.length);
+            mLength = mPrefix.length;
+        }
+    }
+
+    /**
+     * Format the label for the given position. The result is available from {@link #getBuffer()}
+     * and {@link #getLength()}
+     *
+     * @param percentComplete percentage the series is filled 0 .. 1.0f
+     * @param positionValue   current position of the series
+     * @return true if the text may have changed since the last call
+     */
+    boolean format(float percentComplete, float positionValue) {
+        if (!mHasNumber && !mUseStringFormat) {
+            return false;
+        }
+
+        final float value = mPercent ? percentComplete * 100f : positionValue;
+
+        if (mUseStringFormat || Float.isNaN(value) || Float.isInfinite(value)) {
+            setText(String.format(mTemplate, value));
+            mFormatted = false;
+            return true;
+        }
+
+        final boolean negative = value < 0;
+        final double scaled = Math.abs((double) value) * POWERS_OF_TEN[mPrecision];
+        if (scaled >= Long.MAX_VALUE / 10) {
+            setText(String.format(mTemplate, value));
+            mFormatted = false;
+            return true;
+        }
+
+        final long units = (long) Math.floor(scaled + 0.5);
+        if (mFormatted && units == mLastUnits && negative == mLastNegative) {
+            // Displayed value is unchanged at the precision of the label
+            return false;
+        }
+        mLastUnits = units;
+        mLastNegative = negative;
+        mFormatted = true;
+
+        ensureCapacity(mPrefix.length + mSuffix.length + 22 + mPrecision);
+        int pos = 0;
+        System.arraycopy(mPrefix, 0, mBuffer, pos, mPrefix.length);
+        pos += mPrefix.length;
+        if (negative) {
+            mBuffer[pos++] = '-';
+        }
+        pos = appendLong(units / POWERS_OF_TEN[mPrecision], pos);
+        if (mPrecision > 0) {
+            mBuffer[pos++] = mDecimalSeparator;
+            long fraction = units % POWERS_OF_TEN[mPrecision];
+            for (int i = pos + mPrecision - 1; i >= pos; i--) {
+                mBuffer[i] = (char) ('0' + (fraction % 10));
+                fraction /= 10;
+            }
+            pos += mPrecision;
+        }
+        System.arraycopy(mSuffix, 0, mBuffer, pos, mSuffix.length);
+        mLength = pos + mSuffix.length;
+        return true;
+    }
+
+    /**
+     * Buffer containing the formatted text. Only the first {@link #getLength()} chars are valid
+     *
+     * @return buffer
+     */
+    @NonNull
+    char[] getBuffer() {
+        return mBuffer;
+    }
+
+    /**
+     * Number of chars of formatted text in the buffer
+     *
+     * @return length
+     */
+    int getLength() {
+        return mLength;
+    }
+
+    /**
+     * Does this formatter hold the same text as another formatter
+     *
+     * @param other formatter to compare, may be null
+     * @return true if the formatted text is the same
+     */
+    boolean hasSameText(@Nullable LabelFormatter other) {
+        if (other == null || other.mLength != mLength) {
+            return false;
+        }
+        for (int i = 0; i < mLength; i++) {
+            if (other.mBuffer[i] != mBuffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int appendLong(long value, int pos) {
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            mBuffer[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private void setText(@NonNull String text) {
+        ensureCapacity(text.length());
+        text.getChars(0, text.length(), mBuffer, 0);
+        mLength = text.length();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (mBuffer.length < capacity) {
+            mBuffer = new char[capacity];
+        }
+    }
+}
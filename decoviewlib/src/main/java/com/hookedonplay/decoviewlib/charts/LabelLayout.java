@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * Positions the {@link SeriesLabel} of every series in a view so that labels do not overlap.
+ * <p/>
+ * Each label is first centered over the visible area of its series by {@link FrameSnapshot}. The
+ * labels are then sorted from top to bottom and any label that overlaps a label above it is moved
+ * down below that label.
+ */
+final class LabelLayout {
+    /**
+     * Minimum vertical space between two labels after an overlap has been resolved
+     */
+    static final float LABEL_SPACING = 4f;
+
+    private LabelLayout() {
+    }
+
+    /**
+     * Sort the labels from top to bottom and move each label below any label above it that it
+     * overlaps. The number of labels is small so an insertion sort is used.
+     * <p/>
+     * Labels are only ever moved down while resolving overlaps, so once the bottom of a placed
+     * label is above the top of the next label in sorted order it can not overlap that label or any
+     * label after it. Each label is only compared with the placed labels that are still active, in
+     * the order they were placed
+     *
+     * @param rects   area covered by each label, moved to resolve overlaps
+     * @param order   receives the index of each label sorted from top to bottom. Must contain
+     *                0 .. count - 1 on entry
+     * @param active  scratch array of at least count entries, receives the placed labels that may
+     *                still overlap the next label
+     * @param count   number of labels
+     * @param height  height of the canvas the labels are drawn on
+     * @param spacing minimum vertical space between two labels
+     */
+    static void resolveOverlaps(@NonNull RectF[] rects, @NonNull int[] order, @NonNull int[] active, int count,
+                                int height, float spacing) {
+        for (int i = 1; i < count; i++) {
+            final int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && rects[order[j]].top > rects[index].top) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+
+        int activeCount = 0;
+        for (int i = 0; i < count; i++) {
+            final RectF rect = rects[order[i]];
+            // Labels after this one start no higher, and are only moved down
+            final float top = rect.top;
+            int kept = 0;
+            for (int j = 0; j < activeCount; j++) {
+                final RectF placed = rects[active[j]];
+                if (placed.bottom + spacing <= top) {
+                    continue;
+                }
+                active[kept++] = active[j];
+                if (rect.left < placed.right && placed.left < rect.right &&
+                        rect.top < placed.bottom + spacing && placed.top < rect.bottom) {
+                    rect.offset(0, placed.bottom + spacing - rect.top);
+                }
+            }
+            if (rect.bottom > height) {
+                rect.offset(0, height - rect.bottom);
+            }
+            active[kept++] = order[i];
+            activeCount = kept;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.hookedonplay.decoviewlib.charts;
 
 import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.RectF;
 import android.graphics.Region;
@@ -36,7 +37,7 @@ public class LineArcSeries extends ArcSeries {
     }
 
     /**
-     * Draw this arc in the current position calculated by the ValueAnimator.
+     * Draw this arc in the current position calculated by the current animation frame.
      *
      * @param canvas Canvas used to draw
      * @param bounds Bounds to be used to draw the arc
@@ -64,34 +65,52 @@ public class LineArcSeries extends ArcSeries {
     }
 
     /**
-     * Draw the {@link EdgeDetail} for this View. Note that on API 11 - 17 clipPath is only available
-     * if HardwareAcceleration is disable. A function {@link DecoView#enableCompatibilityMode()}
-     * is provided which will disable on affected platforms however this needs to be explicitly
-     * called by the user, otherwise EdgeDetails will not be drawn
+     * Draw the {@link EdgeDetail} for this View.
+     * <p/>
+     * When the line has flat ends, or is a complete circle so the ends are not visible, the edge is
+     * exactly a narrower arc drawn along the inner or outer edge of the line, so it is drawn as a
+     * stroke without clipping. This is also used for all lines when the render mode is
+     * {@link EdgeDetail.RenderMode#RENDER_STROKE}, in which case the rounded ends of the edge
+     * approximate the rounded ends of the line.
+     * <p/>
+     * Otherwise the rounded ends of the line need to be clipped. Note that on API 11 - 17 clipPath
+     * is only available if HardwareAcceleration is disable. A function
+     * {@link DecoView#enableCompatibilityMode()} is provided which will disable on affected
+     * platforms however this needs to be explicitly called by the user, otherwise EdgeDetails will
+     * not be drawn
      *
      * @param canvas Canvas to draw to
      */
     private void drawArcEdgeDetail(@NonNull Canvas canvas) {
         ArrayList<EdgeDetail> edgeDetailList = getSeriesItem().getEdgeDetail();
-        if (edgeDetailList == null) {
+        if (edgeDetailList == null || mArcAngleSweep == 0) {
             return;
         }
 
-        for (EdgeDetail edgeDetail : edgeDetailList) {
+        final boolean drawAsStroke = mEdgeRenderMode == EdgeDetail.RenderMode.RENDER_STROKE ||
+                mPaint.getStrokeCap() != Paint.Cap.ROUND ||
+                Math.abs(mArcAngleSweep) >= 360;
+
+        for (int i = 0; i < edgeDetailList.size(); i++) {
+            EdgeDetail edgeDetail = edgeDetailList.get(i);
             final boolean drawInner = edgeDetail.getEdgeType() == EdgeDetail.EdgeType.EDGE_INNER;
-            if (edgeDetail.getClipPath() == null) {
-                float inset = (edgeDetail.getRatio() - 0.5f) * mSeriesItem.getLineWidth();
-                if (drawInner) {
+            if (drawAsStroke) {
+                final float lineWidth = mPaint.getStrokeWidth();
+                float inset = (1.0f - edgeDetail.getRatio()) * lineWidth / 2;
+                if (!drawInner) {
                     inset = -inset;
                 }
+                drawEdgeStroke(canvas, edgeDetail.getStrokeOval(mBoundsInset, inset),
+                        edgeDetail.getRatio() * lineWidth, edgeDetail.getColor(),
+                        mPaint.getStrokeCap(), mPaint.getShader());
+                continue;
+            }
 
-                Path clipPath = new Path();
-                RectF clipRect = new RectF(mBoundsInset);
-                clipRect.inset(inset, inset);
-                clipPath.addOval(clipRect, Path.Direction.CW);
-                edgeDetail.setClipPath(clipPath);
+            float inset = (edgeDetail.getRatio() - 0.5f) * mSeriesItem.getLineWidth();
+            if (drawInner) {
+                inset = -inset;
             }
-            drawClippedArc(canvas, edgeDetail.getClipPath(), edgeDetail.getColor(),
+            drawClippedArc(canvas, edgeDetail.getClipPath(mBoundsInset, inset), edgeDetail.getColor(),
                     drawInner ? Region.Op.INTERSECT : Region.Op.DIFFERENCE);
         }
     }
@@ -17,10 +17,8 @@ package com.hookedonplay.decoviewlib.charts;
 
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Path;
 import android.graphics.RectF;
-import android.graphics.Shader;
 import android.support.annotation.NonNull;
 import android.util.Log;
 import com.hookedonplay.decoviewlib.DecoView;
@@ -118,8 +116,10 @@ public class LineSeries extends ChartSeries {
              */
             int colorOne = mSeriesItem.getSpinClockwise() ? mSeriesItem.getColor() : mSeriesItem.getSecondaryColor();
             int colorTwo = mSeriesItem.getSpinClockwise() ? mSeriesItem.getSecondaryColor() : mSeriesItem.getColor();
-            LinearGradient gradient = new LinearGradient(mBounds.left, mBounds.top, mBounds.right, mBounds.bottom, colorOne, colorTwo, Shader.TileMode.CLAMP);
-            mPaint.setShader(gradient);
+            mPaint.setShader(ShaderCache.getInstance().getLinearGradient(mBounds.left, mBounds.top,
+                    mBounds.right, mBounds.bottom, colorOne, colorTwo));
+        } else if (mPaint.getShader() != null) {
+            mPaint.setShader(null);
         }
     }
 
@@ -16,15 +16,11 @@
 package com.hookedonplay.decoviewlib.charts;
 
 import android.graphics.Canvas;
-import android.graphics.Path;
+import android.graphics.Paint;
 import android.graphics.RectF;
-import android.graphics.Region;
-import android.graphics.Shader;
 import android.support.annotation.NonNull;
 import android.util.Log;
 
-import com.hookedonplay.decoviewlib.DecoView;
-
 import java.util.ArrayList;
 
 public class PieSeries extends ArcSeries {
@@ -33,7 +29,7 @@ public class PieSeries extends ArcSeries {
     }
 
     /**
-     * Draw this pie chart in the current position calculated by the ValueAnimator.
+     * Draw this pie chart in the current position calculated by the current animation frame.
      *
      * @param canvas Canvas used to draw
      * @param bounds Bounds to be used to draw the arc
@@ -59,65 +55,32 @@ public class PieSeries extends ArcSeries {
     }
 
     /**
-     * Draw the {@link EdgeDetail} for this View. Note that on API 11 - 17 clipPath is only available
-     * if HardwareAcceleration is disable. A function {@link DecoView#enableCompatibilityMode()}
-     * is provided which will disable on affected platforms however this needs to be explicitly
-     * called by the user, otherwise EdgeDetails will not be drawn
+     * Draw the {@link EdgeDetail} for this View. The outer edge of a pie segment is the arc
+     * between the two radial edges of the segment, so the edge detail is drawn as a flat ended arc
+     * stroke along the outside of the segment. No clipping is required
      *
      * @param canvas Canvas to draw to
      */
     private void drawArcEdgeDetail(@NonNull Canvas canvas) {
         ArrayList<EdgeDetail> edgeDetailList = getSeriesItem().getEdgeDetail();
-        if (edgeDetailList == null) {
+        if (edgeDetailList == null || mArcAngleSweep == 0) {
             return;
         }
 
-        for (EdgeDetail edgeDetail : edgeDetailList) {
-            final boolean drawInner = edgeDetail.getEdgeType() == EdgeDetail.EdgeType.EDGE_INNER;
-            if (drawInner) {
+        for (int i = 0; i < edgeDetailList.size(); i++) {
+            EdgeDetail edgeDetail = edgeDetailList.get(i);
+            if (edgeDetail.getEdgeType() == EdgeDetail.EdgeType.EDGE_INNER) {
                 //TODO: Implement EDGE_INNER for pie
                 Log.w(TAG, "EDGE_INNER Not Yet Implemented for pie chart");
                 continue;
             }
-            if (edgeDetail.getClipPath() == null) {
-                float inset = (edgeDetail.getRatio() - 0.5f) * mPaint.getStrokeWidth();
 
-                Path clipPath = new Path();
-                RectF clipRect = new RectF(mBoundsInset);
-                clipRect.inset(inset, inset);
-                clipPath.addOval(clipRect, Path.Direction.CW);
-                edgeDetail.setClipPath(clipPath);
+            final float edgeWidth = (edgeDetail.getRatio() - 0.5f) * mPaint.getStrokeWidth();
+            if (edgeWidth <= 0) {
+                continue;
             }
-            //noinspection ConstantConditions
-            drawClippedArc(canvas, edgeDetail.getClipPath(), edgeDetail.getColor(),
-                    drawInner ? Region.Op.INTERSECT : Region.Op.DIFFERENCE);
+            drawEdgeStroke(canvas, edgeDetail.getStrokeOval(mBoundsInset, edgeWidth / 2), edgeWidth,
+                    edgeDetail.getColor(), Paint.Cap.BUTT, null);
         }
     }
-
-    /**
-     * Draw the {@link EdgeDetail} for this View. Note that on API 11 - 17 clipPath is only available
-     * if HardwareAcceleration is disable. A function {@link DecoView#enableCompatibilityMode()}
-     * is provided which will disable on affected platforms however this needs to be explicitly
-     * called by the user, otherwise EdgeDetails will not be drawn
-     */
-    protected void drawClippedArc(@NonNull Canvas canvas, @NonNull Path path, int color, @NonNull Region.Op combine) {
-        canvas.save();
-
-        try {
-            canvas.clipPath(path, combine);
-        } catch (UnsupportedOperationException e) {
-            Log.w(TAG, "clipPath unavailable on API 11 - 17 without disabling hardware acceleration. (EdgeDetail functionality requires clipPath). Call DecoView.enableCompatibilityMode() to enable");
-            canvas.restore();
-            return;
-        }
-
-        int colorOld = mPaint.getColor();
-        Shader shaderOld = mPaint.getShader();
-        mPaint.setColor(color);
-        mPaint.setShader(null);
-        drawArc(canvas);
-        mPaint.setColor(colorOld);
-        mPaint.setShader(shaderOld);
-        canvas.restore();
-    }
 }
@@ -326,6 +326,34 @@ public class SeriesItem {
             mColorSecondary = colorSecondary;
         }
 
+        /**
+         * Construct a Builder with the attributes of an existing item, such as the current color
+         * after a color change event. Edge details and the inset are copied, listeners are not
+         *
+         * @param seriesItem item to copy
+         */
+        public Builder(@NonNull SeriesItem seriesItem) {
+            mColor = seriesItem.mColor;
+            mColorSecondary = seriesItem.mColorSecondary;
+            mLineWidth = seriesItem.mLineWidth;
+            mSpinDuration = seriesItem.mSpinDuration;
+            mMinValue = seriesItem.mMinValue;
+            mMaxValue = seriesItem.mMaxValue;
+            mInitialValue = seriesItem.mInitialValue;
+            mInitialVisibility = seriesItem.mInitialVisibility;
+            mSpinClockwise = seriesItem.mSpinClockwise;
+            mRoundCap = seriesItem.mRoundCap;
+            mDrawAsPoint = seriesItem.mDrawAsPoint;
+            mChartStyle = seriesItem.mChartStyle;
+            mInterpolator = seriesItem.mInterpolator;
+            mShowPointWhenEmpty = seriesItem.mShowPointWhenEmpty;
+            mInset = seriesItem.mInset != null ? new PointF(seriesItem.mInset.x, seriesItem.mInset.y) : null;
+            mEdgeDetail = seriesItem.mEdgeDetail != null ? new ArrayList<>(seriesItem.mEdgeDetail) : null;
+            mSeriesLabel = seriesItem.mSeriesLabel;
+            mShadowSize = seriesItem.mShadowSize;
+            mShadowColor = seriesItem.mShadowColor;
+        }
+
         public Builder setLineWidth(final float lineWidth) {
             mLineWidth = lineWidth;
             return this;
@@ -25,6 +25,7 @@ import android.graphics.Typeface;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.hookedonplay.decoviewlib.util.FastTrig;
 import com.hookedonplay.decoviewlib.util.GenericFunctions;
 
 /**
@@ -47,6 +48,7 @@ public class SeriesLabel {
     private final float mBufferX = 15f;
     private final float mBufferY = 15f;
     private String mLabel;
+    private LabelFormatter mFormatter;
     private Paint mPaintBack;
     private Paint mPaintText;
     private final float mFontSize;
@@ -54,6 +56,10 @@ public class SeriesLabel {
     private Rect mTextBounds;
     private RectF mTextDraw;
     private float mTextCenter;
+    /**
+     * Width of the formatted text. Only measured again when the text changes
+     */
+    private float mTextWidth = -1;
     private final boolean mVisible;
     private final int mColorText;
     private final int mColorBack;
@@ -96,29 +102,42 @@ public class SeriesLabel {
         }
 
         if (mTextBounds == null) {
-            mTextBounds = new Rect();
-            mPaintText.getTextBounds(mLabel, 0, mLabel.length(), mTextBounds);
+            mTextBounds = calcTextBounds(mLabel);
             mTextDraw = new RectF();
             mTextCenter = (mPaintText.descent() + mPaintText.ascent()) / 2;
         }
-    }
 
-    private String getDisplayString(float percentComplete, float positionValue) {
-        // Check if we have dynamically generated text
-        if (mLabel.contains("%%")) {
-            // We found a percentage symbol so we insert a percentage
-            return String.format(mLabel, percentComplete * 100f);
-        } else if (mLabel.contains("%")) {
-            return String.format(mLabel, positionValue);
+        if (mFormatter == null) {
+            mFormatter = new LabelFormatter(mLabel);
         }
-        // Static label
-        return mLabel;
     }
 
+    private Rect calcTextBounds(@NonNull String label) {
+        Rect textBounds = new Rect();
+        mPaintText.getTextBounds(label, 0, label.length(), textBounds);
+        return textBounds;
+    }
+
+    /**
+     * Change the text of the label. The bounds and formatter are replaced rather than cleared, so
+     * the next frame captured sees the new formatter and copies it
+     *
+     * @param label new text, which may contain a format specifier
+     */
     public void setLabel(@NonNull String label) {
         mLabel = label;
-        mTextBounds = null;
-        recalcLayout();
+        mTextBounds = calcTextBounds(label);
+        mFormatter = new LabelFormatter(label);
+        mTextWidth = -1;
+    }
+
+    /**
+     * Is the label visible
+     *
+     * @return true if visible
+     */
+    public boolean isVisible() {
+        return mVisible;
     }
 
     public RectF draw(@NonNull Canvas canvas, @NonNull RectF rect,
@@ -127,41 +146,119 @@ public class SeriesLabel {
             return null;
         }
 
+        updateText(percentComplete, positionValue);
+        calcTextDraw(canvas.getWidth(), canvas.getHeight(), rect, percentAngle, mTextWidth,
+                mTextBounds.height(), mTextDraw);
+        drawPrepared(canvas, mTextDraw, mFormatter.getBuffer(), mFormatter.getLength());
+        return mTextDraw;
+    }
+
+    /**
+     * Format the text of the label for the given position. The text is only formatted and
+     * measured again if the value displayed at the precision of the label has changed
+     *
+     * @param percentComplete percentage the series is filled 0 .. 1.0f
+     * @param positionValue   current position of the series
+     */
+    private void updateText(float percentComplete, float positionValue) {
+        final LabelFormatter formatter = mFormatter;
+        if (formatter.format(percentComplete, positionValue) || mTextWidth < 0) {
+            mTextWidth = mPaintText.measureText(formatter.getBuffer(), 0, formatter.getLength());
+        }
+    }
+
+    /**
+     * Formatter for the current text of the label. Replaced when the text is changed
+     *
+     * @return formatter
+     */
+    @NonNull
+    LabelFormatter getFormatter() {
+        return mFormatter;
+    }
+
+    /**
+     * Paint used to draw the text, copied by {@link FrameSnapshot} to measure the text of a frame
+     *
+     * @return text paint
+     */
+    @NonNull
+    Paint getTextPaint() {
+        return mPaintText;
+    }
+
+    /**
+     * Height of the text of the label
+     *
+     * @return height in pixels
+     */
+    int getTextHeight() {
+        return mTextBounds.height();
+    }
+
+    /**
+     * Calculate the area the label covers when drawn at the given position
+     *
+     * @param width        width of the canvas the label is drawn on
+     * @param height       height of the canvas the label is drawn on
+     * @param rect         bounds of the series
+     * @param percentAngle position of the label on the circle 0 .. 1.0f
+     * @param textWidth    width of the text
+     * @param textHeight   height of the text
+     * @param out          receives the area covered by the label
+     */
+    void layout(int width, int height, @NonNull RectF rect, float percentAngle,
+                float textWidth, int textHeight, @NonNull RectF out) {
+        calcTextDraw(width, height, rect, percentAngle, textWidth, textHeight, out);
+    }
+
+    /**
+     * Draw the label with text and position prepared in advance
+     *
+     * @param canvas Canvas used to draw
+     * @param rect   area covered by the label
+     * @param text   text of the label
+     * @param length number of chars of text
+     */
+    void drawPrepared(@NonNull Canvas canvas, @NonNull RectF rect, @NonNull char[] text, int length) {
+        canvas.drawRoundRect(
+                rect,
+                10f, 10f, mPaintBack);
+
+        final float yVal = rect.centerY() - mTextCenter;
+        canvas.drawText(text, 0, length, rect.centerX(), yVal, mPaintText);
+    }
+
+    /**
+     * Position the label centered on the given angle of the series, keeping it within the canvas
+     */
+    private void calcTextDraw(int width, int height, @NonNull RectF rect, float percentAngle,
+                              float textWidth, int textHeight, @NonNull RectF out) {
         float radius = rect.width() / 2;
-        float radians = ((360f * percentAngle) - 90) * (float) (Math.PI / 180f);
+        float degrees = (360f * percentAngle) - 90;
 
-        float xVal = (float) Math.cos(radians) * radius + rect.centerX();
-        float yVal = (float) Math.sin(radians) * radius + rect.centerY();
+        float xVal = FastTrig.cosDegrees(degrees) * radius + rect.centerX();
+        float yVal = FastTrig.sinDegrees(degrees) * radius + rect.centerY();
 
-        final float halfWidth = (mTextBounds.width() / 2) + mBufferX;
-        final float halfHeight = (mTextBounds.height() / 2) + mBufferY;
+        final float halfWidth = (Math.max(textWidth, 0) / 2) + mBufferX;
+        final float halfHeight = (textHeight / 2) + mBufferY;
         if (0 > xVal - halfWidth) {
             xVal = halfWidth;
         }
-        if (canvas.getWidth() < xVal + halfWidth) {
-            xVal = canvas.getWidth() - halfWidth;
+        if (width < xVal + halfWidth) {
+            xVal = width - halfWidth;
         }
         if (0 > yVal - halfHeight) {
             yVal = halfHeight;
         }
-        if (canvas.getHeight() < yVal + halfHeight) {
-            yVal = canvas.getHeight() - halfHeight;
+        if (height < yVal + halfHeight) {
+            yVal = height - halfHeight;
         }
 
-        mTextDraw.set(xVal - halfWidth,
+        out.set(xVal - halfWidth,
                 yVal - halfHeight,
                 xVal + halfWidth,
                 yVal + halfHeight);
-
-
-        canvas.drawRoundRect(
-                mTextDraw,
-                10f, 10f, mPaintBack);
-
-        yVal -= mTextCenter;
-        canvas.drawText(getDisplayString(percentComplete, positionValue), xVal, yVal, mPaintText);
-
-        return mTextDraw;
     }
 
     public static class Builder {
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
+import android.graphics.Shader;
+import android.graphics.SweepGradient;
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+
+/**
+ * Cache of the gradient shaders used to draw series with a secondary color. Creating a
+ * {@link SweepGradient} or {@link LinearGradient} is relatively expensive, and the same gradient
+ * is rebuilt every time a series is reset or a chart is rebound in a list. Shaders are immutable
+ * once created so one instance can be shared between any number of series and views.
+ * <p/>
+ * The cache is bounded and evicts the least recently used shader once {@link #DEFAULT_MAX_SIZE}
+ * entries are held.
+ */
+@SuppressWarnings("unused")
+public class ShaderCache {
+    /**
+     * Maximum number of shaders held by the shared cache
+     */
+    static public final int DEFAULT_MAX_SIZE = 64;
+
+    static private final int STYLE_SWEEP_ARC = 0;
+    static private final int STYLE_SWEEP_CIRCLE = 1;
+    static private final int STYLE_LINEAR = 2;
+
+    static private ShaderCache mInstance;
+
+    private final LruCache<Key, Shader> mCache;
+    /**
+     * Reused to look up entries without allocating. A copy is only made when a new entry is added
+     */
+    private final Key mLookupKey = new Key();
+
+    public ShaderCache(int maxSize) {
+        mCache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Retrieve the cache shared by all series in all views
+     *
+     * @return shared ShaderCache
+     */
+    static public synchronized ShaderCache getInstance() {
+        if (mInstance == null) {
+            mInstance = new ShaderCache(DEFAULT_MAX_SIZE);
+        }
+        return mInstance;
+    }
+
+    /**
+     * Get a {@link SweepGradient} for an arc series, creating it if it is not already cached.
+     * <p/>
+     * When the total angle is less than a full circle the two colors meet in the middle of the gap
+     * that is not drawn. For a full circle the gradient fades between the two colors around the
+     * complete circumference.
+     *
+     * @param centerX        X coordinate of the center of the arc
+     * @param centerY        Y coordinate of the center of the arc
+     * @param color          main color
+     * @param colorSecondary secondary color
+     * @param angleStart     angle the arc starts from in degrees
+     * @param angleSweep     total angle of the arc in degrees
+     * @return shader to apply to the paint
+     */
+    @NonNull
+    public synchronized Shader getSweepGradient(float centerX, float centerY, int color, int colorSecondary,
+                                                float angleStart, float angleSweep) {
+        final boolean circle = angleSweep >= 360;
+        mLookupKey.set(circle ? STYLE_SWEEP_CIRCLE : STYLE_SWEEP_ARC, color, colorSecondary,
+                centerX, centerY, 0, 0, circle ? 0 : angleStart, angleSweep);
+
+        Shader shader = mCache.get(mLookupKey);
+        if (shader != null) {
+            return shader;
+        }
+
+        if (!circle) {
+            /**
+             * When we have less than a full circle we change the style of gradient so that
+             * the two colors start at the same point. The two provided colors meet rather than
+             * a fade the complete circumference. A matrix is rotated so the meeting of the
+             * two colors occurs in the middle of the gap when the part circle is not drawn
+             */
+            final int[] colors = {color, colorSecondary};
+            final float[] positions = {0, 1};
+            shader = new SweepGradient(centerX, centerY, colors, positions);
+            Matrix gradientRotationMatrix = new Matrix();
+            gradientRotationMatrix.preRotate(angleStart - ((360f - angleSweep) / 2), centerX, centerY);
+            shader.setLocalMatrix(gradientRotationMatrix);
+        } else {
+            /**
+             * Drawing a gradient around the complete circumference of the circle. This
+             * gradient fades gently between the two colors.
+             */
+            final int[] colors = {colorSecondary, color, colorSecondary};
+            final float[] positions = {0, 0.5f * (angleSweep / 360f), 1};
+            shader = new SweepGradient(centerX, centerY, colors, positions);
+        }
+
+        mCache.put(new Key(mLookupKey), shader);
+        return shader;
+    }
+
+    /**
+     * Get a {@link LinearGradient} for a line series, creating it if it is not already cached
+     *
+     * @param x0         start x coordinate
+     * @param y0         start y coordinate
+     * @param x1         end x coordinate
+     * @param y1         end y coordinate
+     * @param colorStart color at the start of the line
+     * @param colorEnd   color at the end of the line
+     * @return shader to apply to the paint
+     */
+    @NonNull
+    public synchronized Shader getLinearGradient(float x0, float y0, float x1, float y1,
+                                                 int colorStart, int colorEnd) {
+        mLookupKey.set(STYLE_LINEAR, colorStart, colorEnd, x0, y0, x1, y1, 0, 0);
+
+        Shader shader = mCache.get(mLookupKey);
+        if (shader == null) {
+            shader = new LinearGradient(x0, y0, x1, y1, colorStart, colorEnd, Shader.TileMode.CLAMP);
+            mCache.put(new Key(mLookupKey), shader);
+        }
+        return shader;
+    }
+
+    /**
+     * Number of lookups that returned a cached shader
+     *
+     * @return hit count
+     */
+    public synchronized int hitCount() {
+        return mCache.hitCount();
+    }
+
+    /**
+     * Number of lookups that required a new shader to be created
+     *
+     * @return miss count
+     */
+    public synchronized int missCount() {
+        return mCache.missCount();
+    }
+
+    /**
+     * Number of shaders removed to keep the cache within its maximum size
+     *
+     * @return eviction count
+     */
+    public synchronized int evictionCount() {
+        return mCache.evictionCount();
+    }
+
+    /**
+     * Number of shaders currently held in the cache
+     *
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return mCache.size();
+    }
+
+    /**
+     * Remove all shaders from the cache
+     */
+    public synchronized void clear() {
+        mCache.evictAll();
+    }
+
+    /**
+     * Key identifying a gradient by its style, colors, geometry and angles
+     */
+    static private final class Key {
+        private int mStyle;
+        private int mColor1;
+        private int mColor2;
+        private float mX0;
+        private float mY0;
+        private float mX1;
+        private float mY1;
+        private float mAngleStart;
+        private float mAngleSweep;
+
+        Key() {
+        }
+
+        Key(@NonNull Key key) {
+            set(key.mStyle, key.mColor1, key.mColor2, key.mX0, key.mY0, key.mX1, key.mY1,
+                    key.mAngleStart, key.mAngleSweep);
+        }
+
+        void set(int style, int color1, int color2, float x0, float y0, float x1, float y1,
+                 float angleStart, float angleSweep) {
+            mStyle = style;
+            mColor1 = color1;
+            mColor2 = color2;
+            mX0 = x0;
+            mY0 = y0;
+            mX1 = x1;
+            mY1 = y1;
+            mAngleStart = angleStart;
+            mAngleSweep = angleSweep;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return mStyle == key.mStyle &&
+                    mColor1 == key.mColor1 &&
+                    mColor2 == key.mColor2 &&
+                    Float.compare(mX0, key.mX0) == 0 &&
+                    Float.compare(mY0, key.mY0) == 0 &&
+                    Float.compare(mX1, key.mX1) == 0 &&
+                    Float.compare(mY1, key.mY1) == 0 &&
+                    Float.compare(mAngleStart, key.mAngleStart) == 0 &&
+                    Float.compare(mAngleSweep, key.mAngleSweep) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mStyle;
+            result = 31 * result + mColor1;
+            result = 31 * result + mColor2;
+            result = 31 * result + Float.floatToIntBits(mX0);
+            result = 31 * result + Float.floatToIntBits(mY0);
+            result = 31 * result + Float.floatToIntBits(mX1);
+            result = 31 * result + Float.floatToIntBits(mY1);
+            result = 31 * result + Float.floatToIntBits(mAngleStart);
+            result = 31 * result + Float.floatToIntBits(mAngleSweep);
+            return result;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import android.view.animation.Interpolator;
 
 import com.hookedonplay.decoviewlib.charts.DecoDrawEffect;
 
+import java.util.ArrayList;
+
 /**
  * Encapsulates a scheduled operation to perform on the {@link com.hookedonplay.decoviewlib.DecoView}
  * <p/>
@@ -54,13 +56,26 @@ public class DecoEvent {
     private final long mFadeDuration;
     private final View[] mLinkedViews;
     private final long mEffectDuration;
-    private final int mIndexPosition;
+    /**
+     * Index of the series, updated by {@link DecoEventManager} if series are removed or moved while
+     * the event is pending
+     */
+    private int mIndexPosition;
     private final int mEffectRotations;
     private final String mDisplayText;
     private final float mEndPosition;
     private final int mColor;
     private final Interpolator mInterpolator;
     private final ExecuteEventListener mListener;
+    /**
+     * Called once when the event next ends, used by {@link DecoEventManager} to start events
+     * sequenced after this event
+     */
+    private ArrayList<EndCallback> mEndCallbacks;
+    /**
+     * Number of series animations started by the event that have not yet ended
+     */
+    private int mAnimationCount;
     /**
      * Construct the DecoEvent using the attributes set by the Builder
      *
@@ -127,6 +142,10 @@ public class DecoEvent {
         return mIndexPosition;
     }
 
+    void setIndexPosition(int index) {
+        mIndexPosition = index;
+    }
+
     public int getEffectRotations() {
         return mEffectRotations;
     }
@@ -157,6 +176,10 @@ public class DecoEvent {
         return mInterpolator;
     }
 
+    public ExecuteEventListener getListener() {
+        return mListener;
+    }
+
     /**
      * Generate notifications for listeners when the event is complete
      */
@@ -164,12 +187,70 @@ public class DecoEvent {
         if (mListener != null) {
             mListener.onEventEnd(this);
         }
+        notifyAnimationEnd();
+    }
+
+    /**
+     * The animation of one series started by the event has ended. Used directly for animations
+     * that end without notifying the listener, such as the series hidden by
+     * {@link com.hookedonplay.decoviewlib.charts.DecoDrawEffect.EffectType#EFFECT_SPIRAL_EXPLODE}.
+     * The end callbacks are run once the animation of every series has ended
+     */
+    public void notifyAnimationEnd() {
+        if (mAnimationCount > 0) {
+            mAnimationCount--;
+        }
+        if (mAnimationCount > 0) {
+            return;
+        }
+        if (mEndCallbacks != null && !mEndCallbacks.isEmpty()) {
+            final EndCallback[] callbacks = mEndCallbacks.toArray(new EndCallback[mEndCallbacks.size()]);
+            mEndCallbacks.clear();
+            for (EndCallback callback : callbacks) {
+                callback.onEventEnd(this);
+            }
+        }
+    }
+
+    /**
+     * Add a callback run once when the event next ends. A callback is only added once
+     *
+     * @param callback callback to add
+     */
+    void addEndCallback(@NonNull EndCallback callback) {
+        if (mEndCallbacks == null) {
+            mEndCallbacks = new ArrayList<>(1);
+        }
+        if (!mEndCallbacks.contains(callback)) {
+            mEndCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * Has the event started an animation that has not yet ended
+     *
+     * @return true if animating
+     */
+    boolean isAnimating() {
+        return mAnimationCount > 0;
+    }
+
+    /**
+     * Remove a callback added by {@link #addEndCallback(EndCallback)}
+     *
+     * @param callback callback to remove
+     */
+    void removeEndCallback(@NonNull EndCallback callback) {
+        if (mEndCallbacks != null) {
+            mEndCallbacks.remove(callback);
+        }
     }
 
     /**
      * Event is starting
      */
     public void notifyStartListener() {
+        mAnimationCount++;
         if (mListener != null) {
             mListener.onEventStart(this);
         }
@@ -193,6 +274,13 @@ public class DecoEvent {
         void onEventEnd(DecoEvent event);
     }
 
+    /**
+     * Internal notification of the event ending, see {@link #addEndCallback(EndCallback)}
+     */
+    interface EndCallback {
+        void onEventEnd(@NonNull DecoEvent event);
+    }
+
     public static class Builder {
         private final EventType mType;
         private long mEventID = EVENT_ID_UNSPECIFIED;
@@ -245,6 +333,30 @@ public class DecoEvent {
             mType = showView ? EventType.EVENT_SHOW : EventType.EVENT_HIDE;
         }
 
+        /**
+         * Construct a Builder with every attribute of an existing event, including its listener.
+         * The new event is scheduled and counts the animations it starts independently of the
+         * event it is copied from
+         *
+         * @param event event to copy
+         */
+        public Builder(@NonNull DecoEvent event) {
+            mType = event.mType;
+            mEventID = event.mEventID;
+            mDelay = event.mDelay;
+            mEffectType = event.mEffectType;
+            mFadeDuration = event.mFadeDuration;
+            mLinkedViews = event.mLinkedViews;
+            mEffectDuration = event.mEffectDuration;
+            mIndex = event.mIndexPosition;
+            mEffectRotations = event.mEffectRotations;
+            mDisplayText = event.mDisplayText;
+            mEndPosition = event.mEndPosition;
+            mColor = event.mColor;
+            mInterpolator = event.mInterpolator;
+            mListener = event.mListener;
+        }
+
         public Builder(EventType eventType, int color) {
             if (EventType.EVENT_COLOR_CHANGE != eventType) {
                 throw new IllegalArgumentException("Must specify EVENT_COLOR_CHANGE when setting new color");
@@ -17,17 +17,31 @@ package com.hookedonplay.decoviewlib.events;
 
 import android.os.Build;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.animation.AlphaAnimation;
 import android.view.animation.Animation;
 import android.widget.TextView;
 import com.hookedonplay.decoviewlib.charts.DecoDrawEffect;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
 /**
  * Event manager for processing {@link DecoEvent} at the scheduled time (or immediately if no
  * delay is set). This class is also responsible for processing the hide/show fade effects of linked
  * views.
+ * <p/>
+ * Pending events are kept on a single timeline ordered by the time each is due, with one handler
+ * callback posted for the earliest event. Pending events can be queried and cancelled by event ID
+ * or series index, and events can be sequenced to start once another event has ended.
  *
  * Each {@link com.hookedonplay.decoviewlib.DecoView} contains one DecoEventManager, which can
  * handle any number of {@link DecoEvent}
@@ -35,14 +49,90 @@ import com.hookedonplay.decoviewlib.charts.DecoDrawEffect;
 public class DecoEventManager {
 
     /**
-     * Handler to manage firing events at given delays
+     * Handler used to run the timeline when the next event is due
+     */
+    private final Handler mHandler;
+    /**
+     * Handler used to update linked views when events are executed on a thread other than the UI
+     * thread. Null when events are executed on the UI thread
      */
-    private final Handler mHandler = new Handler();
+    private final Handler mViewHandler;
 
     private final ArcEventManagerListener mListener;
+    /**
+     * Replace a pending move event with a newer move event for the same series
+     */
+    private boolean mCoalesceMoves;
+    /**
+     * Move events waiting to be executed, keyed by series index. Only used when coalescing
+     */
+    private final SparseArray<ScheduledEvent> mPendingMoves = new SparseArray<>();
+    /**
+     * Timeline of events waiting to be executed, ordered by the time each is due. A single
+     * callback is posted for the earliest event rather than one callback for every event
+     */
+    private final PriorityQueue<ScheduledEvent> mTimeline = new PriorityQueue<>();
+    /**
+     * Number of events on the timeline that have not been replaced by a coalesced move. Replaced
+     * events are left on the timeline and skipped when they reach the head
+     */
+    private int mTimelineCount;
+    /**
+     * Events waiting for another event to end before they are added to the timeline, see
+     * {@link #addAfter(DecoEvent, DecoEvent)}
+     */
+    private final ArrayList<ScheduledEvent> mWaiting = new ArrayList<>();
+    /**
+     * Number of times each event is on the timeline or waiting, compared by identity
+     */
+    private final IdentityHashMap<DecoEvent, Integer> mPending = new IdentityHashMap<>();
+    /**
+     * Events that have been executed and have not yet ended, compared by identity
+     */
+    private final IdentityHashMap<DecoEvent, Boolean> mRunning = new IdentityHashMap<>();
+    /**
+     * Uptime the timeline callback is posted for, or -1 if not posted
+     */
+    private long mScheduledTime = -1;
+    /**
+     * Order events are added in, so events due at the same time are executed in that order
+     */
+    private long mSequence;
+    private final Runnable mTimelineRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mScheduledTime = -1;
+            executeDueEvents();
+        }
+    };
+    private final DecoEvent.EndCallback mEndCallback = new DecoEvent.EndCallback() {
+        @Override
+        public void onEventEnd(@NonNull DecoEvent event) {
+            onRunningEventEnd(event);
+        }
+    };
+    /**
+     * Number of move events that have been replaced by a newer event before being executed
+     */
+    private int mCoalescedCount;
 
     public DecoEventManager(@NonNull ArcEventManagerListener listener) {//DynamicArcView arcView) {
         mListener = listener;
+        mHandler = new Handler();
+        mViewHandler = null;
+    }
+
+    /**
+     * Create an event manager that executes events on the thread of the given looper, such as a
+     * render thread. Linked views of the events are still updated on the UI thread
+     *
+     * @param listener listener to execute the events
+     * @param looper   looper of the thread used to execute the events
+     */
+    public DecoEventManager(@NonNull ArcEventManagerListener listener, @NonNull Looper looper) {
+        mListener = listener;
+        mHandler = new Handler(looper);
+        mViewHandler = looper != Looper.getMainLooper() ? new Handler(Looper.getMainLooper()) : null;
     }
 
     /**
@@ -50,7 +140,354 @@ public class DecoEventManager {
      *
      * @param event DecoEvent to add
      */
-    public void add(@NonNull final DecoEvent event) {
+    public void add(@NonNull DecoEvent event) {
+        add(event, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * Add a {@link DecoEvent} with its delay measured from the given time rather than now. Events
+     * added to several managers with the same base time are due at the same time
+     *
+     * @param event    DecoEvent to add
+     * @param baseTime uptime in ms, see {@link SystemClock#uptimeMillis()}
+     */
+    public void add(@NonNull DecoEvent event, long baseTime) {
+        schedule(new ScheduledEvent(event, null, mSequence++), baseTime + event.getDelay());
+    }
+
+    /**
+     * Add a {@link DecoEvent} to be processed once another event has ended. The delay of the event
+     * is measured from the end of the previous event, which allows a sequence of events to be
+     * scripted without calculating the delay of each from the duration of those before it.
+     * <p/>
+     * If the previous event is not pending or running the event is scheduled immediately. If the
+     * previous event is cancelled before it is executed the event is also cancelled. An event for
+     * all series (index -1) has ended once the animation of every series it started has ended
+     *
+     * @param previous event that must end before this event is scheduled
+     * @param event    DecoEvent to add
+     */
+    public void addAfter(@NonNull DecoEvent previous, @NonNull DecoEvent event) {
+        if (!mPending.containsKey(previous) && !mRunning.containsKey(previous)) {
+            add(event);
+            return;
+        }
+        mWaiting.add(new ScheduledEvent(event, previous, mSequence++));
+        addPending(event);
+    }
+
+    /**
+     * Add an event to the timeline and post the timeline callback if it is now due earliest
+     *
+     * @param scheduled event to add
+     * @param dueTime   uptime in ms the event is due
+     */
+    private void schedule(@NonNull ScheduledEvent scheduled, long dueTime) {
+        scheduled.mDueTime = dueTime;
+        final DecoEvent event = scheduled.mEvent;
+        if (mCoalesceMoves && event.getEventType() == DecoEvent.EventType.EVENT_MOVE && event.getIndexPosition() >= 0) {
+            ScheduledEvent pending = mPendingMoves.get(event.getIndexPosition());
+            if (pending != null) {
+                pending.mReplaced = true;
+                mTimelineCount--;
+                removePending(pending.mEvent);
+                // Events sequenced after the replaced event now follow the newer event
+                for (int i = 0; i < mWaiting.size(); i++) {
+                    ScheduledEvent waiting = mWaiting.get(i);
+                    if (waiting.mAfter == pending.mEvent) {
+                        mWaiting.set(i, new ScheduledEvent(waiting.mEvent, event, waiting.mSequence));
+                    }
+                }
+                mCoalescedCount++;
+            }
+            mPendingMoves.put(event.getIndexPosition(), scheduled);
+        }
+        mTimeline.add(scheduled);
+        mTimelineCount++;
+        addPending(event);
+        scheduleTimeline();
+    }
+
+    private void addPending(@NonNull DecoEvent event) {
+        final Integer count = mPending.get(event);
+        mPending.put(event, count == null ? 1 : count + 1);
+    }
+
+    private void removePending(@NonNull DecoEvent event) {
+        final Integer count = mPending.get(event);
+        if (count == null || count <= 1) {
+            mPending.remove(event);
+        } else {
+            mPending.put(event, count - 1);
+        }
+    }
+
+    /**
+     * Post the timeline callback for the earliest event, unless already posted for that time
+     */
+    private void scheduleTimeline() {
+        ScheduledEvent next;
+        while ((next = mTimeline.peek()) != null && next.mReplaced) {
+            mTimeline.poll();
+        }
+        if (next == null) {
+            if (mScheduledTime >= 0) {
+                mHandler.removeCallbacks(mTimelineRunnable);
+                mScheduledTime = -1;
+            }
+            return;
+        }
+        if (mScheduledTime >= 0 && mScheduledTime <= next.mDueTime) {
+            return;
+        }
+        mHandler.removeCallbacks(mTimelineRunnable);
+        mHandler.postAtTime(mTimelineRunnable, next.mDueTime);
+        mScheduledTime = next.mDueTime;
+    }
+
+    /**
+     * Execute every event on the timeline that is due, in the order they are due
+     */
+    private void executeDueEvents() {
+        final long now = SystemClock.uptimeMillis();
+        ScheduledEvent next;
+        while ((next = mTimeline.peek()) != null && next.mDueTime <= now) {
+            mTimeline.poll();
+            if (next.mReplaced) {
+                continue;
+            }
+            mTimelineCount--;
+            removePending(next.mEvent);
+            final int index = next.mEvent.getIndexPosition();
+            if (mPendingMoves.get(index) == next) {
+                mPendingMoves.remove(index);
+            }
+            execute(next.mEvent);
+        }
+        scheduleTimeline();
+    }
+
+    /**
+     * Schedule the events that were waiting for an event to end
+     *
+     * @param event event that has ended
+     */
+    private void onRunningEventEnd(@NonNull DecoEvent event) {
+        mRunning.remove(event);
+        final long now = SystemClock.uptimeMillis();
+        for (int i = 0; i < mWaiting.size(); ) {
+            final ScheduledEvent waiting = mWaiting.get(i);
+            if (waiting.mAfter == event) {
+                mWaiting.remove(i);
+                removePending(waiting.mEvent);
+                schedule(waiting, now + waiting.mEvent.getDelay());
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Cancel all pending events with the given event ID, along with any events sequenced after
+     * them. Events that have already started are not affected
+     *
+     * @param eventID ID set by {@link DecoEvent.Builder#setEventID(long)}
+     * @return number of events cancelled
+     */
+    public int cancel(long eventID) {
+        if (eventID == DecoEvent.EVENT_ID_UNSPECIFIED) {
+            return 0;
+        }
+        return cancelPending(eventID, 0, true);
+    }
+
+    /**
+     * Cancel all pending events for the series at the given index, along with any events
+     * sequenced after them. Events for all series (index -1) are only cancelled by passing -1
+     *
+     * @param index index of the series
+     * @return number of events cancelled
+     */
+    public int cancelSeries(int index) {
+        return cancelPending(DecoEvent.EVENT_ID_UNSPECIFIED, index, false);
+    }
+
+    private int cancelPending(long eventID, int index, boolean byEventID) {
+        final ArrayList<ScheduledEvent> cancelled = new ArrayList<>();
+        final Iterator<ScheduledEvent> iterator = mTimeline.iterator();
+        while (iterator.hasNext()) {
+            final ScheduledEvent scheduled = iterator.next();
+            if (scheduled.mReplaced) {
+                iterator.remove();
+            } else if (scheduled.matches(eventID, index, byEventID)) {
+                iterator.remove();
+                mTimelineCount--;
+                cancelled.add(scheduled);
+            }
+        }
+        for (int i = mWaiting.size() - 1; i >= 0; i--) {
+            if (mWaiting.get(i).matches(eventID, index, byEventID)) {
+                cancelled.add(mWaiting.remove(i));
+            }
+        }
+
+        // Events sequenced after a cancelled event can never be scheduled
+        for (int c = 0; c < cancelled.size(); c++) {
+            final ScheduledEvent scheduled = cancelled.get(c);
+            removePending(scheduled.mEvent);
+            final int seriesIndex = scheduled.mEvent.getIndexPosition();
+            if (mPendingMoves.get(seriesIndex) == scheduled) {
+                mPendingMoves.remove(seriesIndex);
+            }
+            for (int i = mWaiting.size() - 1; i >= 0; i--) {
+                if (mWaiting.get(i).mAfter == scheduled.mEvent) {
+                    cancelled.add(mWaiting.remove(i));
+                }
+            }
+        }
+
+        scheduleTimeline();
+        return cancelled.size();
+    }
+
+    /**
+     * A series has been removed. Pending events for the series are cancelled, along with any events
+     * sequenced after them, and pending events for the series after it are updated to the new
+     * index of their series
+     *
+     * @param index index the series was removed from
+     */
+    public void onSeriesRemoved(int index) {
+        cancelSeries(index);
+        remapSeries(index, -1);
+    }
+
+    /**
+     * A series has been moved to a new index. Pending events for the moved series and for the
+     * series shifted by the move are updated to the new index of their series
+     *
+     * @param from index the series was moved from
+     * @param to   index the series was moved to
+     */
+    public void onSeriesMoved(int from, int to) {
+        if (from != to) {
+            remapSeries(from, to);
+        }
+    }
+
+    /**
+     * Update the series index of every pending event after a series has been removed or moved
+     *
+     * @param from index the series was removed or moved from
+     * @param to   index the series was moved to, or -1 if removed
+     */
+    private void remapSeries(int from, int to) {
+        // Each event is updated once, even if it is pending more than once
+        for (DecoEvent event : mPending.keySet()) {
+            event.setIndexPosition(remapIndex(event.getIndexPosition(), from, to));
+        }
+
+        if (mPendingMoves.size() > 0) {
+            final ArrayList<ScheduledEvent> pendingMoves = new ArrayList<>(mPendingMoves.size());
+            for (int i = 0; i < mPendingMoves.size(); i++) {
+                pendingMoves.add(mPendingMoves.valueAt(i));
+            }
+            mPendingMoves.clear();
+            for (int i = 0; i < pendingMoves.size(); i++) {
+                final ScheduledEvent scheduled = pendingMoves.get(i);
+                mPendingMoves.put(scheduled.mEvent.getIndexPosition(), scheduled);
+            }
+        }
+    }
+
+    /**
+     * New index of a series after a series has been removed or moved
+     *
+     * @param index index of the series before the change, or -1 for all series
+     * @param from  index the series was removed or moved from
+     * @param to    index the series was moved to, or -1 if removed
+     * @return index of the series after the change
+     */
+    private static int remapIndex(int index, int from, int to) {
+        if (index < 0) {
+            return index;
+        }
+        if (to < 0) {
+            return index > from ? index - 1 : index;
+        }
+        if (index == from) {
+            return to;
+        }
+        if (from < to && index > from && index <= to) {
+            return index - 1;
+        }
+        if (to < from && index >= to && index < from) {
+            return index + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Number of events waiting to be executed, including events sequenced after another event
+     *
+     * @return pending event count
+     */
+    public int getPendingCount() {
+        return mTimelineCount + mWaiting.size();
+    }
+
+    /**
+     * Events waiting to be executed. Events on the timeline are returned in the order they are
+     * due, followed by events waiting for another event to end
+     *
+     * @return pending events
+     */
+    @NonNull
+    public List<DecoEvent> getPendingEvents() {
+        final ArrayList<ScheduledEvent> timeline = new ArrayList<>(mTimelineCount);
+        for (ScheduledEvent scheduled : mTimeline) {
+            if (!scheduled.mReplaced) {
+                timeline.add(scheduled);
+            }
+        }
+        Collections.sort(timeline);
+        final ArrayList<DecoEvent> events = new ArrayList<>(timeline.size() + mWaiting.size());
+        for (int i = 0; i < timeline.size(); i++) {
+            events.add(timeline.get(i).mEvent);
+        }
+        for (int i = 0; i < mWaiting.size(); i++) {
+            events.add(mWaiting.get(i).mEvent);
+        }
+        return events;
+    }
+
+    /**
+     * Is an event with the given ID waiting to be executed
+     *
+     * @param eventID ID set by {@link DecoEvent.Builder#setEventID(long)}
+     * @return true if pending
+     */
+    public boolean isPending(long eventID) {
+        for (ScheduledEvent scheduled : mTimeline) {
+            if (!scheduled.mReplaced && scheduled.mEvent.getEventID() == eventID) {
+                return true;
+            }
+        }
+        for (int i = 0; i < mWaiting.size(); i++) {
+            if (mWaiting.get(i).mEvent.getEventID() == eventID) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Execute an event immediately, ignoring any delay set on the event. Linked views are shown or
+     * hidden and the listener is asked to start the event, exactly as when a scheduled event is due
+     *
+     * @param event DecoEvent to execute
+     */
+    public void execute(@NonNull final DecoEvent event) {
         /**
          * Determine if we need to show and linked views attached to the event. This is useful
          * when scheduling an event at a later time and have the linked view automatically
@@ -63,60 +500,172 @@ public class DecoEventManager {
 
         final boolean ignore = event.getEventType() == DecoEvent.EventType.EVENT_MOVE;
 
-        mHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                if (show && event.getLinkedViews() != null) {
-                    for (View view : event.getLinkedViews()) {
-
-                        // Issue with ICS where View is not displayed after the setVisibility() call if it has no text
-                        // This results in subsequent calls to setText also not being visible
-                        if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.ICE_CREAM_SANDWICH_MR1 && view instanceof TextView) {
-                            TextView textView = (TextView) view;
-                            if (textView.getText().length() <= 0) {
-                                textView.setText(" ");
-                            }
-                        }
-                        view.setVisibility(View.VISIBLE);
+        if (event.getLinkedViews() != null) {
+            if (mViewHandler != null) {
+                mViewHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        updateLinkedViews(event, show, ignore);
                     }
-                }
-                if (!ignore && event.getLinkedViews() != null) {
-                    for (final View view : event.getLinkedViews()) {
-                        AlphaAnimation anim = new AlphaAnimation(show ? 0.0f : 1.0f, show ? 1.0f : 0.0f);
-                        anim.setDuration(event.getFadeDuration());
-                        anim.setFillAfter(true);
-                        anim.setAnimationListener(new Animation.AnimationListener() {
-                            @Override
-                            public void onAnimationStart(Animation animation) {
-
-                            }
-
-                            @Override
-                            public void onAnimationEnd(Animation animation) {
-                                view.setVisibility(show ? View.VISIBLE : View.INVISIBLE);
-                            }
-
-                            @Override
-                            public void onAnimationRepeat(Animation animation) {
-
-                            }
-                        });
-                        view.startAnimation(anim);
+                });
+            } else {
+                updateLinkedViews(event, show, ignore);
+            }
+        }
+        mRunning.put(event, Boolean.TRUE);
+        event.addEndCallback(mEndCallback);
+        try {
+            if (mListener != null) {
+                mListener.onExecuteEventStart(event);
+            }
+        } finally {
+            // No animation was started, such as a color change without a color or an index with
+            // no series, so the event will never end. Treat it as ended now
+            if (!event.isAnimating() && mRunning.containsKey(event)) {
+                event.removeEndCallback(mEndCallback);
+                onRunningEventEnd(event);
+            }
+        }
+    }
+
+    /**
+     * Show or hide the views linked to an event. Must be called on the UI thread
+     *
+     * @param event  event being executed
+     * @param show   true if the event shows the series
+     * @param ignore true if the event does not change the visibility of the linked views
+     */
+    private void updateLinkedViews(@NonNull DecoEvent event, final boolean show, boolean ignore) {
+        if (show && event.getLinkedViews() != null) {
+            for (View view : event.getLinkedViews()) {
+
+                // Issue with ICS where View is not displayed after the setVisibility() call if it has no text
+                // This results in subsequent calls to setText also not being visible
+                if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.ICE_CREAM_SANDWICH_MR1 && view instanceof TextView) {
+                    TextView textView = (TextView) view;
+                    if (textView.getText().length() <= 0) {
+                        textView.setText(" ");
                     }
                 }
-                if (mListener != null) {
-                    mListener.onExecuteEventStart(event);
-                }
+                view.setVisibility(View.VISIBLE);
+            }
+        }
+        if (!ignore && event.getLinkedViews() != null) {
+            for (final View view : event.getLinkedViews()) {
+                AlphaAnimation anim = new AlphaAnimation(show ? 0.0f : 1.0f, show ? 1.0f : 0.0f);
+                anim.setDuration(event.getFadeDuration());
+                anim.setFillAfter(true);
+                anim.setAnimationListener(new Animation.AnimationListener() {
+                    @Override
+                    public void onAnimationStart(Animation animation) {
 
+                    }
+
+                    @Override
+                    public void onAnimationEnd(Animation animation) {
+                        view.setVisibility(show ? View.VISIBLE : View.INVISIBLE);
+                    }
+
+                    @Override
+                    public void onAnimationRepeat(Animation animation) {
+
+                    }
+                });
+                view.startAnimation(anim);
             }
-        }, event.getDelay());
+        }
+    }
+
+    /**
+     * Enable coalescing of move events. When enabled a {@link DecoEvent.EventType#EVENT_MOVE}
+     * event that has not yet been executed is discarded when a newer move event is added for the
+     * same series index. The series then moves from its current position directly to the latest
+     * position. The listener of a discarded event is not called.
+     * <p/>
+     * This is useful when values are updated faster than the move animations complete
+     *
+     * @param coalesce true to replace pending move events
+     */
+    public void setCoalesceMoves(boolean coalesce) {
+        mCoalesceMoves = coalesce;
+        if (!coalesce) {
+            mPendingMoves.clear();
+        }
     }
 
     /**
-     * Remove any existing delayed messages from the handler
+     * Number of move events that were discarded as they were replaced by a newer move event
+     * for the same series, see {@link #setCoalesceMoves(boolean)}
+     *
+     * @return number of coalesced events
+     */
+    public int getCoalescedCount() {
+        return mCoalescedCount;
+    }
+
+    /**
+     * Reset the count of coalesced move events to zero
+     */
+    public void resetCoalescedCount() {
+        mCoalescedCount = 0;
+    }
+
+    /**
+     * Remove all pending events, including events waiting for another event to end
      */
     public void resetEvents() {
         mHandler.removeCallbacksAndMessages(null);
+        if (mViewHandler != null) {
+            mViewHandler.removeCallbacksAndMessages(null);
+        }
+        mScheduledTime = -1;
+        mTimeline.clear();
+        mTimelineCount = 0;
+        mWaiting.clear();
+        mPending.clear();
+        for (DecoEvent event : mRunning.keySet()) {
+            event.removeEndCallback(mEndCallback);
+        }
+        mRunning.clear();
+        mPendingMoves.clear();
+    }
+
+    /**
+     * Event on the timeline, ordered by the time it is due and then the order it was added
+     */
+    private static final class ScheduledEvent implements Comparable<ScheduledEvent> {
+        final DecoEvent mEvent;
+        /**
+         * Event that must end before this event is scheduled, or null
+         */
+        final DecoEvent mAfter;
+        final long mSequence;
+        long mDueTime;
+        /**
+         * Replaced by a newer move event for the same series and skipped when due
+         */
+        boolean mReplaced;
+
+        ScheduledEvent(@NonNull DecoEvent event, DecoEvent after, long sequence) {
+            mEvent = event;
+            mAfter = after;
+            mSequence = sequence;
+        }
+
+        boolean matches(long eventID, int index, boolean byEventID) {
+            return byEventID ? mEvent.getEventID() == eventID : mEvent.getIndexPosition() == index;
+        }
+
+        @Override
+        public int compareTo(@NonNull ScheduledEvent other) {
+            if (mDueTime != other.mDueTime) {
+                return mDueTime < other.mDueTime ? -1 : 1;
+            }
+            if (mSequence != other.mSequence) {
+                return mSequence < other.mSequence ? -1 : 1;
+            }
+            return 0;
+        }
     }
 
     /**
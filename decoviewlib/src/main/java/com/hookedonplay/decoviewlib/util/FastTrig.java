@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.util;
+
+/**
+ * Float sine and cosine from a precalculated table with linear interpolation. Used to place points
+ * on the circumference of a series on every frame without the cost of the double precision
+ * {@link Math#sin(double)} and {@link Math#cos(double)}.
+ * <p/>
+ * The maximum error is below 1e-5, which is less than 0.02 pixels for a radius of 2000 pixels.
+ */
+@SuppressWarnings("unused")
+public class FastTrig {
+    static final private int TABLE_SIZE = 1024;
+    static final private float HALF_PI = (float) (Math.PI / 2);
+    static final private float INDEX_PER_RADIAN = (float) (TABLE_SIZE / (Math.PI * 2));
+    static final private float RADIANS_PER_DEGREE = (float) (Math.PI / 180);
+    /**
+     * One full revolution, with an extra entry so the last interval can be interpolated
+     */
+    static final private float[] SIN_TABLE = new float[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SIN_TABLE[i] = (float) Math.sin(i * Math.PI * 2 / TABLE_SIZE);
+        }
+    }
+
+    private FastTrig() {
+    }
+
+    /**
+     * Sine of an angle
+     *
+     * @param radians angle in radians
+     * @return sine of the angle
+     */
+    static public float sin(float radians) {
+        final float index = radians * INDEX_PER_RADIAN;
+        int i = (int) index;
+        if (index < i) {
+            i--;
+        }
+        final float fraction = index - i;
+        // The table size is a power of 2 so wrapping to one revolution is a mask
+        i &= TABLE_SIZE - 1;
+        return SIN_TABLE[i] + (SIN_TABLE[i + 1] - SIN_TABLE[i]) * fraction;
+    }
+
+    /**
+     * Cosine of an angle
+     *
+     * @param radians angle in radians
+     * @return cosine of the angle
+     */
+    static public float cos(float radians) {
+        return sin(radians + HALF_PI);
+    }
+
+    /**
+     * Sine of an angle given in degrees
+     *
+     * @param degrees angle in degrees
+     * @return sine of the angle
+     */
+    static public float sinDegrees(float degrees) {
+        return sin(degrees * RADIANS_PER_DEGREE);
+    }
+
+    /**
+     * Cosine of an angle given in degrees
+     *
+     * @param degrees angle in degrees
+     * @return cosine of the angle
+     */
+    static public float cosDegrees(float degrees) {
+        return sin((degrees + 90) * RADIANS_PER_DEGREE);
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.util;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.graphics.Shader;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Canvas that records the drawing operations issued to it. All drawing in the library is done
+ * through {@link Canvas}, so passing a RecordingCanvas to {@link android.view.View#draw(Canvas)}
+ * of a {@link com.hookedonplay.decoviewlib.DecoView} records every operation issued by the series,
+ * labels, effects and edge details for one frame.
+ * <p/>
+ * When constructed with a width and height the canvas is headless and operations are only
+ * recorded. When constructed with another canvas each operation is recorded and then passed on
+ * to that canvas.
+ * <p/>
+ * Call {@link #reset()} before each frame to start counting from zero.
+ */
+@SuppressWarnings("unused")
+public class RecordingCanvas extends Canvas {
+
+    private final Canvas mDelegate;
+    private final int mWidth;
+    private final int mHeight;
+    private final int[] mCounts = new int[Op.values().length];
+    private final ArrayList<Op> mOps = new ArrayList<>();
+    /**
+     * Shader of the last paint used to draw, used to count shader changes
+     */
+    private Shader mLastShader;
+    private boolean mShaderKnown;
+
+    /**
+     * Create a headless canvas of the given size that only records operations
+     *
+     * @param width  width reported by {@link #getWidth()}
+     * @param height height reported by {@link #getHeight()}
+     */
+    public RecordingCanvas(int width, int height) {
+        mDelegate = null;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * Create a canvas that records each operation before passing it to the given canvas
+     *
+     * @param delegate canvas to draw to
+     */
+    public RecordingCanvas(@NonNull Canvas delegate) {
+        mDelegate = delegate;
+        mWidth = delegate.getWidth();
+        mHeight = delegate.getHeight();
+    }
+
+    /**
+     * Clear all recorded operations
+     */
+    public void reset() {
+        for (int i = 0; i < mCounts.length; i++) {
+            mCounts[i] = 0;
+        }
+        mOps.clear();
+        mLastShader = null;
+        mShaderKnown = false;
+    }
+
+    /**
+     * Number of times the given operation has been issued since the last {@link #reset()}
+     *
+     * @param op operation to count
+     * @return number of times issued
+     */
+    public int getCount(@NonNull Op op) {
+        return mCounts[op.ordinal()];
+    }
+
+    /**
+     * Total number of operations issued since the last {@link #reset()}
+     *
+     * @return number of operations
+     */
+    public int getTotalCount() {
+        return mOps.size();
+    }
+
+    /**
+     * All operations in the order they were issued since the last {@link #reset()}
+     *
+     * @return list of operations
+     */
+    @NonNull
+    public List<Op> getOps() {
+        return mOps;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('{');
+        boolean first = true;
+        for (Op op : Op.values()) {
+            if (mCounts[op.ordinal()] > 0) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                builder.append(op.name()).append('=').append(mCounts[op.ordinal()]);
+                first = false;
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    private void record(@NonNull Op op) {
+        mCounts[op.ordinal()]++;
+        mOps.add(op);
+    }
+
+    private void record(@NonNull Op op, @Nullable Paint paint) {
+        if (paint != null && (!mShaderKnown || paint.getShader() != mLastShader)) {
+            mLastShader = paint.getShader();
+            mShaderKnown = true;
+            record(Op.SHADER_CHANGE);
+        }
+        record(op);
+    }
+
+    @Override
+    public int getWidth() {
+        return mWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return mHeight;
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return mDelegate != null && mDelegate.isHardwareAccelerated();
+    }
+
+    @Override
+    public int save() {
+        record(Op.SAVE);
+        return mDelegate != null ? mDelegate.save() : 0;
+    }
+
+    @Override
+    public void restore() {
+        record(Op.RESTORE);
+        if (mDelegate != null) {
+            mDelegate.restore();
+        }
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        record(Op.RESTORE);
+        if (mDelegate != null) {
+            mDelegate.restoreToCount(saveCount);
+        }
+    }
+
+    @Override
+    public boolean clipPath(@NonNull Path path) {
+        record(Op.CLIP_PATH);
+        return mDelegate == null || mDelegate.clipPath(path);
+    }
+
+    @Override
+    public boolean clipPath(@NonNull Path path, @NonNull Region.Op op) {
+        record(Op.CLIP_PATH);
+        return mDelegate == null || mDelegate.clipPath(path, op);
+    }
+
+    @Override
+    public boolean clipRect(@NonNull RectF rect) {
+        record(Op.CLIP_RECT);
+        return mDelegate == null || mDelegate.clipRect(rect);
+    }
+
+    @Override
+    public void drawArc(@NonNull RectF oval, float startAngle, float sweepAngle, boolean useCenter, @NonNull Paint paint) {
+        record(Op.DRAW_ARC, paint);
+        if (mDelegate != null) {
+            mDelegate.drawArc(oval, startAngle, sweepAngle, useCenter, paint);
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull String text, float x, float y, @NonNull Paint paint) {
+        record(Op.DRAW_TEXT, paint);
+        if (mDelegate != null) {
+            mDelegate.drawText(text, x, y, paint);
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull char[] text, int index, int count, float x, float y, @NonNull Paint paint) {
+        record(Op.DRAW_TEXT, paint);
+        if (mDelegate != null) {
+            mDelegate.drawText(text, index, count, x, y, paint);
+        }
+    }
+
+    @Override
+    public void drawText(@NonNull CharSequence text, int start, int end, float x, float y, @NonNull Paint paint) {
+        record(Op.DRAW_TEXT, paint);
+        if (mDelegate != null) {
+            mDelegate.drawText(text, start, end, x, y, paint);
+        }
+    }
+
+    @Override
+    public void drawRoundRect(@NonNull RectF rect, float rx, float ry, @NonNull Paint paint) {
+        record(Op.DRAW_ROUND_RECT, paint);
+        if (mDelegate != null) {
+            mDelegate.drawRoundRect(rect, rx, ry, paint);
+        }
+    }
+
+    @Override
+    public void drawRect(@NonNull RectF rect, @NonNull Paint paint) {
+        record(Op.DRAW_RECT, paint);
+        if (mDelegate != null) {
+            mDelegate.drawRect(rect, paint);
+        }
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, @NonNull Paint paint) {
+        record(Op.DRAW_LINE, paint);
+        if (mDelegate != null) {
+            mDelegate.drawLine(startX, startY, stopX, stopY, paint);
+        }
+    }
+
+    @Override
+    public void drawLines(@NonNull float[] pts, int offset, int count, @NonNull Paint paint) {
+        record(Op.DRAW_LINE, paint);
+        if (mDelegate != null) {
+            mDelegate.drawLines(pts, offset, count, paint);
+        }
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, @NonNull Paint paint) {
+        record(Op.DRAW_CIRCLE, paint);
+        if (mDelegate != null) {
+            mDelegate.drawCircle(cx, cy, radius, paint);
+        }
+    }
+
+    @Override
+    public void drawPath(@NonNull Path path, @NonNull Paint paint) {
+        record(Op.DRAW_PATH, paint);
+        if (mDelegate != null) {
+            mDelegate.drawPath(path, paint);
+        }
+    }
+
+    @Override
+    public void drawBitmap(@NonNull Bitmap bitmap, float left, float top, @Nullable Paint paint) {
+        record(Op.DRAW_BITMAP);
+        if (mDelegate != null) {
+            mDelegate.drawBitmap(bitmap, left, top, paint);
+        }
+    }
+
+    /**
+     * Drawing operations recorded by the canvas
+     */
+    public enum Op {
+        SAVE,
+        RESTORE,
+        CLIP_PATH,
+        CLIP_RECT,
+        DRAW_ARC,
+        DRAW_TEXT,
+        DRAW_ROUND_RECT,
+        DRAW_RECT,
+        DRAW_LINE,
+        DRAW_CIRCLE,
+        DRAW_PATH,
+        DRAW_BITMAP,
+        SHADER_CHANGE /* Paint used to draw has a different shader to the previous draw */
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.app.Activity;
+import android.content.Context;
+import android.widget.LinearLayout;
+
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that the members of a {@link DecoAnimationGroup} are stepped together on one frame
+ * clock, and that an event added to the group is executed separately by each member
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoAnimationGroupTest {
+    static final private long FRAME_MS = 16;
+    static final private long DELAY = 500;
+    static final private long DURATION = 1000;
+
+    private DecoAnimationGroup mGroup;
+    private GroupMemberView[] mViews;
+    private int mStarted;
+    private int mEnded;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        final LinearLayout layout = new LinearLayout(activity);
+        activity.setContentView(layout);
+
+        mGroup = new DecoAnimationGroup();
+        mViews = new GroupMemberView[3];
+        for (int i = 0; i < mViews.length; i++) {
+            mViews[i] = new GroupMemberView(activity);
+            // The first view has one series, the others two
+            for (int s = 0; s < (i == 0 ? 1 : 2); s++) {
+                mViews[i].addSeries(new SeriesItem.Builder(0xFF0000FF)
+                        .setRange(0, 100, 0)
+                        .build());
+            }
+            layout.addView(mViews[i]);
+            mGroup.addView(mViews[i]);
+        }
+    }
+
+    @Test
+    public void testEventStartsOnSameFrame() {
+        mGroup.addEvent(new DecoEvent.Builder(50)
+                .setIndex(0)
+                .setDelay(DELAY)
+                .setDuration(DURATION)
+                .build());
+
+        boolean started = false;
+        for (long time = 0; time < DELAY + 2 * DURATION; time += FRAME_MS) {
+            ShadowLooper.idleMainLooper(FRAME_MS);
+            final float position = mViews[0].getChartSeries(0).getPositionPercent();
+            for (GroupMemberView view : mViews) {
+                assertEquals(position, view.getChartSeries(0).getPositionPercent(), 0f);
+            }
+            started |= position > 0;
+        }
+        assertTrue(started);
+        assertEquals(0.5f, mViews[0].getChartSeries(0).getPositionPercent(), 0.001f);
+    }
+
+    @Test
+    public void testOneInvalidatePassForAllMembers() {
+        for (GroupMemberView view : mViews) {
+            view.moveTo(new float[]{50f}, DURATION);
+            view.mInvalidates = 0;
+        }
+
+        ShadowLooper.idleMainLooper(FRAME_MS);
+        for (GroupMemberView view : mViews) {
+            assertEquals(0, view.mFramesPosted);
+            assertEquals(1, view.mInvalidates);
+        }
+    }
+
+    @Test
+    public void testEventCopiedForEachView() {
+        final DecoEvent event = new DecoEvent.Builder(50)
+                .setIndex(1)
+                .setDelay(DELAY)
+                .setDuration(DURATION)
+                .setListener(new DecoEvent.ExecuteEventListener() {
+                    @Override
+                    public void onEventStart(DecoEvent event) {
+                        mStarted++;
+                    }
+
+                    @Override
+                    public void onEventEnd(DecoEvent event) {
+                        mEnded++;
+                    }
+                })
+                .build();
+        mGroup.addEvent(event);
+
+        // The first view has no series at index 1 so is skipped rather than throwing when due
+        assertTrue(mViews[0].getPendingEvents().isEmpty());
+        final DecoEvent first = mViews[1].getPendingEvents().get(0);
+        final DecoEvent second = mViews[2].getPendingEvents().get(0);
+        assertNotSame(event, first);
+        assertNotSame(first, second);
+        assertEquals(1, first.getIndexPosition());
+
+        ShadowLooper.idleMainLooper(DELAY);
+        assertEquals(1, mStarted);
+        assertEquals(0, mEnded);
+
+        for (long time = 0; time < 2 * DURATION; time += FRAME_MS) {
+            ShadowLooper.idleMainLooper(FRAME_MS);
+        }
+        assertFalse(mViews[1].getChartSeries(1).isAnimating());
+        assertFalse(mViews[2].getChartSeries(1).isAnimating());
+        assertEquals(1, mStarted);
+        assertEquals(1, mEnded);
+    }
+
+    /**
+     * Counts the frame callbacks the view posts itself and the number of times it is invalidated
+     */
+    static class GroupMemberView extends DecoView {
+        int mFramesPosted;
+        int mInvalidates;
+
+        GroupMemberView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void postOnAnimation(Runnable action) {
+            mFramesPosted++;
+        }
+
+        @Override
+        public void invalidate() {
+            super.invalidate();
+            mInvalidates++;
+        }
+
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            super.invalidate(l, t, r, b);
+            mInvalidates++;
+        }
+    }
+}
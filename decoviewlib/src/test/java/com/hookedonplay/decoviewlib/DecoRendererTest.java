@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas.Op;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drive a {@link DecoRenderer} without a view or render thread, drawing each frame onto a headless
+ * {@link RecordingCanvas} in place of the surface of {@link DecoTextureView}
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoRendererTest {
+    static final private int SIZE = 400;
+
+    private DecoRenderer mRenderer;
+    private RecordingCanvas mSurface;
+    private int mFramesRequested;
+
+    @Before
+    public void setUp() {
+        mRenderer = new DecoRenderer();
+        mRenderer.setFrameRequestListener(new DecoRenderer.FrameRequestListener() {
+            @Override
+            public void onFrameRequested(@NonNull DecoRenderer renderer) {
+                mFramesRequested++;
+            }
+        });
+        mSurface = new RecordingCanvas(SIZE, SIZE);
+    }
+
+    @Test
+    public void testNothingDrawnWithoutSize() {
+        mRenderer.addSeries(createSeriesItem(50));
+        drawFrame();
+        assertEquals(0, mSurface.getTotalCount());
+    }
+
+    @Test
+    public void testDrawsEachSeries() {
+        mRenderer.setSize(SIZE, SIZE);
+        assertEquals(0, mRenderer.addSeries(createSeriesItem(100)));
+        assertEquals(1, mRenderer.addSeries(createSeriesItem(50)));
+        assertEquals(2, mFramesRequested);
+
+        drawFrame();
+        assertEquals(2, mSurface.getCount(Op.DRAW_ARC));
+    }
+
+    @Test
+    public void testMoveAnimatesUntilComplete() {
+        mRenderer.setSize(SIZE, SIZE);
+        mRenderer.addSeries(createSeriesItem(0));
+        mFramesRequested = 0;
+
+        mRenderer.onExecuteEventStart(new DecoEvent.Builder(80)
+                .setIndex(0)
+                .setDuration(1000)
+                .build());
+        assertTrue(mFramesRequested > 0);
+
+        assertTrue(mRenderer.onAnimationFrame(0));
+        drawFrame();
+        assertTrue(mRenderer.onAnimationFrame(500));
+        drawFrame();
+        assertEquals(1, mSurface.getCount(Op.DRAW_ARC));
+        assertFalse(mRenderer.onAnimationFrame(1000));
+        drawFrame();
+        assertEquals(1, mSurface.getCount(Op.DRAW_ARC));
+        assertEquals(0.8f, mRenderer.getChartSeries(0).getPositionPercent(), 0.001f);
+    }
+
+    @Test
+    public void testDeleteAll() {
+        mRenderer.setSize(SIZE, SIZE);
+        mRenderer.addSeries(createSeriesItem(50));
+        mRenderer.deleteAll();
+        assertEquals(0, mRenderer.getSeriesCount());
+
+        drawFrame();
+        assertEquals(0, mSurface.getTotalCount());
+    }
+
+    @Test
+    public void testLayoutCentersSquare() {
+        mRenderer.addSeries(createSeriesItem(50));
+        mRenderer.setSize(SIZE, SIZE / 2);
+        assertBounds(110, 10, 290, 190);
+    }
+
+    @Test
+    public void testLayoutGravity() {
+        mRenderer.addSeries(createSeriesItem(50));
+        mRenderer.setSize(SIZE, SIZE / 2);
+
+        mRenderer.setHorizGravity(DecoView.HorizGravity.GRAVITY_HORIZONTAL_LEFT);
+        assertBounds(10, 10, 190, 190);
+        mRenderer.setHorizGravity(DecoView.HorizGravity.GRAVITY_HORIZONTAL_RIGHT);
+        assertBounds(210, 10, 390, 190);
+        mRenderer.setHorizGravity(DecoView.HorizGravity.GRAVITY_HORIZONTAL_FILL);
+        assertBounds(10, 10, 390, 190);
+    }
+
+    @Test
+    public void testLayoutPadding() {
+        mRenderer.addSeries(createSeriesItem(50));
+        mRenderer.setSize(SIZE, SIZE);
+        mFramesRequested = 0;
+
+        mRenderer.setPadding(10, 20, 30, 40);
+        assertBounds(20, 30, 360, 350);
+        assertEquals(1, mFramesRequested);
+    }
+
+    private void assertBounds(float left, float top, float right, float bottom) {
+        final RectF bounds = mRenderer.getArcBounds();
+        assertEquals(left, bounds.left, 0f);
+        assertEquals(top, bounds.top, 0f);
+        assertEquals(right, bounds.right, 0f);
+        assertEquals(bottom, bounds.bottom, 0f);
+    }
+
+    private SeriesItem createSeriesItem(float initial) {
+        return new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, initial)
+                .setLineWidth(20)
+                .setShowPointWhenEmpty(false)
+                .build();
+    }
+
+    private void drawFrame() {
+        mSurface.reset();
+        mRenderer.draw(mSurface);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.widget.LinearLayout;
+
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas.Op;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Drive {@link DecoTextureView} through its render thread, executing the work posted to the
+ * looper of the thread on the test thread and drawing each frame onto a headless
+ * {@link RecordingCanvas} in place of the surface
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoTextureViewTest {
+    static final private int SIZE = 400;
+    static final private long FRAME_MS = 16;
+    static final private long DURATION = 1000;
+
+    private LinearLayout mLayout;
+    private SurfaceTextureView mView;
+    private int mEventsStarted;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        mLayout = new LinearLayout(activity);
+        activity.setContentView(mLayout);
+        mView = new SurfaceTextureView(activity);
+    }
+
+    @Test
+    public void testWorkHeldUntilAttached() {
+        assertEquals(0, mView.addSeries(createSeriesItem(10)));
+        assertEquals(1, mView.addSeries(createSeriesItem(20)));
+        assertEquals(2, mView.getSeriesCount());
+        assertNull(mView.getRenderLooper());
+        assertNull(mView.getSeriesItem(0));
+
+        mLayout.addView(mView);
+        final Looper looper = mView.getRenderLooper();
+        assertNotNull(looper);
+        shadowOf(looper).idle();
+        assertEquals(10, mView.getSeriesItem(0).getLineWidth(), 0f);
+        assertEquals(20, mView.getSeriesItem(1).getLineWidth(), 0f);
+        assertNull(mView.getSeriesItem(2));
+    }
+
+    @Test
+    public void testFramesScheduledWhileAnimating() {
+        mLayout.addView(mView);
+        final Looper looper = mView.getRenderLooper();
+        mView.addSeries(createSeriesItem(10));
+        mView.onSurfaceTextureAvailable(null, SIZE, SIZE);
+        runFrames(looper, FRAME_MS);
+        assertTrue(mView.mFrames > 0);
+        assertEquals(1, mView.mSurface.getCount(Op.DRAW_ARC));
+
+        mView.addEvent(createMoveEvent(50, 0));
+        final int before = mView.mFrames;
+        runFrames(looper, 2 * DURATION);
+        // One frame per interval while animating, then no more frames once the move is complete
+        assertTrue(mView.mFrames - before >= DURATION / FRAME_MS / 2);
+        final int after = mView.mFrames;
+        runFrames(looper, DURATION);
+        assertEquals(after, mView.mFrames);
+    }
+
+    @Test
+    public void testSeriesItemIsSnapshot() {
+        mLayout.addView(mView);
+        final Looper looper = mView.getRenderLooper();
+        final SeriesItem seriesItem = createSeriesItem(10);
+        mView.addSeries(seriesItem);
+        shadowOf(looper).idle();
+        final SeriesItem snapshot = mView.getSeriesItem(0);
+        assertNotSame(seriesItem, snapshot);
+        assertEquals(0xFF0000FF, snapshot.getColor());
+
+        mView.addEvent(new DecoEvent.Builder(DecoEvent.EventType.EVENT_COLOR_CHANGE, 0xFFFF0000)
+                .setIndex(0)
+                .setDuration(DURATION)
+                .build());
+        shadowOf(looper).idle();
+        assertEquals(0xFF0000FF, snapshot.getColor());
+        assertEquals(0xFFFF0000, mView.getSeriesItem(0).getColor());
+    }
+
+    @Test
+    public void testQuickDetachAndReattach() {
+        mLayout.addView(mView);
+        final Looper first = mView.getRenderLooper();
+        mView.addSeries(createSeriesItem(10));
+        mView.onSurfaceTextureAvailable(null, SIZE, SIZE);
+        mView.addEvent(createMoveEvent(80, DURATION));
+
+        // Reattached before the first thread has executed any of its work
+        mLayout.removeView(mView);
+        mLayout.addView(mView);
+        final Looper second = mView.getRenderLooper();
+        assertNotSame(first, second);
+
+        // The first thread adds the series, then discards its pending event and quits
+        shadowOf(first).idle();
+        assertNotNull(mView.getSeriesItem(0));
+        mView.addEvent(createMoveEvent(50, 0));
+        mView.mFrames = 0;
+        runFrames(second, 2 * DURATION);
+        runFrames(first, 0);
+        assertEquals(1, mEventsStarted);
+        assertTrue(mView.mFrames > 0);
+    }
+
+    /**
+     * Execute the work posted to the render thread and the frames it schedules for the given time
+     */
+    private void runFrames(Looper looper, long millis) {
+        for (long time = 0; time < millis; time += FRAME_MS) {
+            shadowOf(looper).idle();
+            ShadowLooper.idleMainLooper(FRAME_MS);
+        }
+        shadowOf(looper).idle();
+    }
+
+    private DecoEvent createMoveEvent(float position, long delay) {
+        return new DecoEvent.Builder(position)
+                .setIndex(0)
+                .setDelay(delay)
+                .setDuration(DURATION)
+                .setListener(new DecoEvent.ExecuteEventListener() {
+                    @Override
+                    public void onEventStart(DecoEvent event) {
+                        mEventsStarted++;
+                    }
+
+                    @Override
+                    public void onEventEnd(DecoEvent event) {
+                    }
+                })
+                .build();
+    }
+
+    private SeriesItem createSeriesItem(float lineWidth) {
+        return new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 25)
+                .setLineWidth(lineWidth)
+                .build();
+    }
+
+    /**
+     * Draws onto a headless canvas in place of the surface texture and counts the frames drawn
+     */
+    static class SurfaceTextureView extends DecoTextureView {
+        final RecordingCanvas mSurface = new RecordingCanvas(SIZE, SIZE);
+        int mFrames;
+
+        SurfaceTextureView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public Canvas lockCanvas() {
+            mSurface.reset();
+            return mSurface;
+        }
+
+        @Override
+        public void unlockCanvasAndPost(Canvas canvas) {
+            mFrames++;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas.Op;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Verify that adding a list of series with {@link DecoView#addSeries(List)} gives the same view as
+ * adding each series in turn
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoViewAddSeriesTest {
+    static final private int SIZE = 400;
+
+    @Test
+    public void testListMatchesSingleAdds() {
+        final List<SeriesItem> items = createSeriesItems(20);
+        final DecoView single = createView();
+        final DecoView bulk = createView();
+        single.addSeries(createSeriesItem(0));
+        bulk.addSeries(createSeriesItem(0));
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i + 1, single.addSeries(items.get(i)));
+        }
+        assertEquals(1, bulk.addSeries(createSeriesItems(items.size())));
+
+        for (int i = 0; i <= items.size(); i++) {
+            assertEquals(single.getSeriesHandle(i), bulk.getSeriesHandle(i));
+            assertSame(bulk.getChartSeries(i), bulk.getChartSeriesByHandle(bulk.getSeriesHandle(i)));
+            assertEquals(single.getSeriesItem(i).getLineWidth(), bulk.getSeriesItem(i).getLineWidth(), 0f);
+        }
+        assertEquals(drawArcCount(single), drawArcCount(bulk));
+    }
+
+    @Test
+    public void testEmptyList() {
+        final DecoView view = createView();
+        assertEquals(-1, view.addSeries(Collections.<SeriesItem>emptyList()));
+        assertEquals(0, drawArcCount(view));
+    }
+
+    private DecoView createView() {
+        final DecoView view = new DecoView(RuntimeEnvironment.application);
+        view.layout(0, 0, SIZE, SIZE);
+        return view;
+    }
+
+    private int drawArcCount(DecoView view) {
+        final RecordingCanvas canvas = new RecordingCanvas(SIZE, SIZE);
+        view.onDraw(canvas);
+        return canvas.getCount(Op.DRAW_ARC);
+    }
+
+    private List<SeriesItem> createSeriesItems(int count) {
+        final ArrayList<SeriesItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(createSeriesItem(i));
+        }
+        return items;
+    }
+
+    private SeriesItem createSeriesItem(int index) {
+        return new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, (index * 7) % 100)
+                .setLineWidth(10 + index % 5)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.util.MicroBenchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Micro-benchmarks of {@link DecoView} setup time against the number of series, see
+ * {@link MicroBenchmark} for how to run them
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoViewBenchmark {
+    static final private int SIZE = 400;
+    static final private int SERIES_TOTAL = 2000;
+    static final private int[] SERIES_COUNTS = {10, 50, 200};
+
+    private MicroBenchmark mBenchmark;
+
+    @Before
+    public void setUp() {
+        mBenchmark = new MicroBenchmark();
+    }
+
+    @Test
+    public void benchmarkAddSeries() {
+        for (final int count : SERIES_COUNTS) {
+            // Each op creates a view and adds all series, so ops/s is the number of views per second
+            mBenchmark.measure("DecoView.addSeries(SeriesItem) x" + count, SERIES_TOTAL / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        final DecoView view = createView();
+                        final List<SeriesItem> items = createSeriesItems(count);
+                        for (int i = 0; i < count; i++) {
+                            sum += view.addSeries(items.get(i));
+                        }
+                    }
+                    return sum;
+                }
+            });
+            mBenchmark.measure("DecoView.addSeries(List) x" + count, SERIES_TOTAL / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        sum += createView().addSeries(createSeriesItems(count));
+                    }
+                    return sum;
+                }
+            });
+        }
+    }
+
+    private DecoView createView() {
+        final DecoView view = new DecoView(RuntimeEnvironment.application);
+        view.layout(0, 0, SIZE, SIZE);
+        return view;
+    }
+
+    private List<SeriesItem> createSeriesItems(int count) {
+        final ArrayList<SeriesItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new SeriesItem.Builder(0xFF0000FF)
+                    .setRange(0, 100, (i * 7) % 100)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import com.hookedonplay.decoviewlib.charts.EdgeDetail;
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.charts.SeriesLabel;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas.Op;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Count the drawing operations {@link DecoView} issues per frame with a {@link RecordingCanvas}
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoViewDrawOpsTest {
+    static final private int SIZE = 400;
+
+    private DecoView mView;
+    private RecordingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mView = new DecoView(RuntimeEnvironment.application);
+        mView.layout(0, 0, SIZE, SIZE);
+        mCanvas = new RecordingCanvas(SIZE, SIZE);
+    }
+
+    @Test
+    public void testDrawArcPerFrame() {
+        mView.addSeries(new SeriesItem.Builder(0xFF000000)
+                .setRange(0, 100, 100)
+                .build());
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 25)
+                .build());
+        mView.addSeries(new SeriesItem.Builder(0xFF00FF00)
+                .setRange(0, 100, 50)
+                .build());
+
+        drawFrame();
+        assertEquals(3, mCanvas.getCount(Op.DRAW_ARC));
+        assertEquals(0, mCanvas.getCount(Op.CLIP_PATH));
+
+        // An idle frame issues exactly the same operations
+        drawFrame();
+        assertEquals(3, mCanvas.getCount(Op.DRAW_ARC));
+        assertEquals(3, mCanvas.getTotalCount() - mCanvas.getCount(Op.SHADER_CHANGE));
+    }
+
+    @Test
+    public void testEmptySeriesNotDrawn() {
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 0)
+                .setShowPointWhenEmpty(false)
+                .build());
+
+        drawFrame();
+        assertEquals(0, mCanvas.getCount(Op.DRAW_ARC));
+    }
+
+    @Test
+    public void testIdleFrameWithStrokeEdgesIssuesNoClipPath() {
+        mView.setEdgeRenderMode(EdgeDetail.RenderMode.RENDER_STROKE);
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 60)
+                .setCapRounded(true)
+                .addEdgeDetail(new EdgeDetail(EdgeDetail.EdgeType.EDGE_INNER, 0x44000000, 0.4f))
+                .build());
+
+        drawFrame();
+        drawFrame();
+        assertEquals(0, mCanvas.getCount(Op.CLIP_PATH));
+        assertEquals(0, mCanvas.getCount(Op.SAVE));
+        assertEquals(2, mCanvas.getCount(Op.DRAW_ARC));
+    }
+
+    @Test
+    public void testFullCircleEdgeIssuesNoClipPath() {
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 100)
+                .setCapRounded(true)
+                .addEdgeDetail(new EdgeDetail(EdgeDetail.EdgeType.EDGE_OUTER, 0x44000000, 0.4f))
+                .build());
+
+        drawFrame();
+        assertEquals(0, mCanvas.getCount(Op.CLIP_PATH));
+        assertEquals(2, mCanvas.getCount(Op.DRAW_ARC));
+    }
+
+    @Test
+    public void testClippedEdgePerFrame() {
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 60)
+                .setCapRounded(true)
+                .addEdgeDetail(new EdgeDetail(EdgeDetail.EdgeType.EDGE_INNER, 0x44000000, 0.4f))
+                .build());
+
+        drawFrame();
+        assertEquals(1, mCanvas.getCount(Op.CLIP_PATH));
+        assertEquals(1, mCanvas.getCount(Op.SAVE));
+        assertEquals(1, mCanvas.getCount(Op.RESTORE));
+        assertEquals(2, mCanvas.getCount(Op.DRAW_ARC));
+    }
+
+    @Test
+    public void testStaticLayerReplacesIdleSeries() {
+        mView.setStaticLayerEnabled(true);
+        mView.addSeries(new SeriesItem.Builder(0xFF000000)
+                .setRange(0, 100, 100)
+                .setCapRounded(true)
+                .addEdgeDetail(new EdgeDetail(EdgeDetail.EdgeType.EDGE_INNER, 0x44000000, 0.4f))
+                .build());
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 60)
+                .setCapRounded(true)
+                .addEdgeDetail(new EdgeDetail(EdgeDetail.EdgeType.EDGE_INNER, 0x44000000, 0.4f))
+                .build());
+        mView.moveTo(new float[]{Float.NaN, 80f}, 1000);
+
+        drawFrame();
+        drawFrame();
+        // Only the animating series is drawn, the idle background comes from the cached layer
+        assertEquals(1, mCanvas.getCount(Op.DRAW_BITMAP));
+        assertEquals(2, mCanvas.getCount(Op.DRAW_ARC));
+        assertEquals(1, mCanvas.getCount(Op.CLIP_PATH));
+    }
+
+    @Test
+    public void testLabelsPerFrame() {
+        mView.addSeries(new SeriesItem.Builder(0xFF000000)
+                .setRange(0, 100, 100)
+                .build());
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 40)
+                .setSeriesLabel(new SeriesLabel.Builder("%.0f%%").build())
+                .build());
+
+        drawFrame();
+        assertEquals(1, mCanvas.getCount(Op.DRAW_TEXT));
+        assertEquals(1, mCanvas.getCount(Op.DRAW_ROUND_RECT));
+
+        drawFrame();
+        assertEquals(1, mCanvas.getCount(Op.DRAW_TEXT));
+    }
+
+    private void drawFrame() {
+        mCanvas.reset();
+        mView.onDraw(mCanvas);
+    }
+}
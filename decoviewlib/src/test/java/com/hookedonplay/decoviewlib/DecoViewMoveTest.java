@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import com.hookedonplay.decoviewlib.charts.ChartSeries;
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that an immediate move replaces any move still animating on the series, that a move to
+ * an invalid index is rejected and that a batch move runs without an event
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoViewMoveTest {
+    private DecoView mView;
+
+    @Before
+    public void setUp() {
+        mView = new DecoView(RuntimeEnvironment.application);
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 0)
+                .build());
+        mView.addSeries(new SeriesItem.Builder(0xFF00FF00)
+                .setRange(0, 100, 0)
+                .build());
+    }
+
+    @Test
+    public void testImmediateBatchMoveCancelsAnimation() {
+        mView.moveTo(new float[]{80f, 60f}, 1000);
+        assertTrue(mView.getChartSeries(0).isAnimating());
+
+        mView.moveTo(new float[]{20f, Float.NaN}, 0);
+        assertSettled(mView.getChartSeries(0), 0.2f);
+        // A series left unchanged keeps animating
+        assertTrue(mView.getChartSeries(1).isAnimating());
+    }
+
+    @Test
+    public void testImmediateMoveCancelsAnimation() {
+        mView.moveTo(new float[]{80f}, 1000);
+        assertTrue(mView.getChartSeries(0).isAnimating());
+
+        mView.moveTo(0, 20f, 0);
+        assertSettled(mView.getChartSeries(0), 0.2f);
+    }
+
+    @Test
+    public void testBatchMoveWithoutEvent() {
+        final ChartSeries chartSeries = mView.getChartSeries(0);
+        mView.moveTo(new float[]{80f}, 1000);
+        assertTrue(chartSeries.isAnimating());
+        assertTrue(chartSeries.onAnimationFrame(0));
+
+        // A move started without an event can be paused and resumed
+        assertTrue(chartSeries.pause());
+        assertTrue(chartSeries.resume());
+        assertTrue(chartSeries.onAnimationFrame(5000));
+        assertFalse(chartSeries.onAnimationFrame(6000));
+        assertEquals(0.8f, chartSeries.getPositionPercent(), 0.001f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testImmediateMoveInvalidIndex() {
+        mView.moveTo(2, 20f, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testImmediateMoveAfterDeleteAll() {
+        mView.deleteAll();
+        mView.moveTo(0, 20f, 0);
+    }
+
+    /**
+     * The series must not be animating and must stay at the position on later frames
+     */
+    private void assertSettled(ChartSeries chartSeries, float positionPercent) {
+        assertFalse(chartSeries.isAnimating());
+        assertFalse(chartSeries.onAnimationFrame(0));
+        assertFalse(chartSeries.onAnimationFrame(2000));
+        assertEquals(positionPercent, chartSeries.getPositionPercent(), 0.001f);
+    }
+}
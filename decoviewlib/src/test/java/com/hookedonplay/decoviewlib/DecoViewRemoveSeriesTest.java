@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import com.hookedonplay.decoviewlib.charts.ChartSeries;
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that events queued for a series follow the series when series are removed or moved, and
+ * that events for a removed series are cancelled
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoViewRemoveSeriesTest {
+    static final private long DELAY = 1000;
+
+    private DecoView mView;
+    private ChartSeries[] mSeries;
+
+    @Before
+    public void setUp() {
+        mView = new DecoView(RuntimeEnvironment.application);
+        mSeries = new ChartSeries[3];
+        for (int i = 0; i < mSeries.length; i++) {
+            mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                    .setRange(0, 100, 0)
+                    .build());
+            mSeries[i] = mView.getChartSeries(i);
+        }
+    }
+
+    @Test
+    public void testRemoveWithDelayedMovePending() {
+        final DecoEvent moveLast = createMoveEvent(2);
+        final DecoEvent moveRemoved = createMoveEvent(0);
+        mView.addEvent(moveLast);
+        mView.addEvent(moveRemoved);
+
+        assertTrue(mView.removeSeries(mView.getSeriesHandle(0)));
+        assertEquals(Collections.singletonList(moveLast), mView.getPendingEvents());
+        assertEquals(1, moveLast.getIndexPosition());
+
+        // Previously the move for index 2 threw as only two series remain
+        ShadowLooper.idleMainLooper(DELAY);
+        assertTrue(mView.getPendingEvents().isEmpty());
+        assertFalse(mSeries[1].isAnimating());
+        assertTrue(mSeries[2].isAnimating());
+    }
+
+    @Test
+    public void testMoveSeriesRemapsPendingEvents() {
+        final DecoEvent moveFirst = createMoveEvent(0);
+        final DecoEvent moveMiddle = createMoveEvent(1);
+        final DecoEvent moveAll = createMoveEvent(-1);
+        mView.addEvent(moveFirst);
+        mView.addEvent(moveMiddle);
+        mView.addEvent(moveAll);
+
+        assertTrue(mView.moveSeries(mView.getSeriesHandle(0), 2));
+        assertEquals(Arrays.asList(moveFirst, moveMiddle, moveAll), mView.getPendingEvents());
+        assertEquals(2, moveFirst.getIndexPosition());
+        assertEquals(0, moveMiddle.getIndexPosition());
+        assertEquals(-1, moveAll.getIndexPosition());
+
+        assertTrue(mView.moveSeries(mView.getSeriesHandle(2), 0));
+        assertEquals(0, moveFirst.getIndexPosition());
+        assertEquals(1, moveMiddle.getIndexPosition());
+    }
+
+    @Test
+    public void testCoalescedMoveFollowsRemovedSeries() {
+        mView.setCoalesceMoveEvents(true);
+        mView.addEvent(createMoveEvent(2));
+        mView.removeSeries(mView.getSeriesHandle(0));
+
+        // The series that was at index 2 is now at index 1, so the newer move replaces the first
+        final DecoEvent latest = createMoveEvent(1);
+        mView.addEvent(latest);
+        assertEquals(Collections.singletonList(latest), mView.getPendingEvents());
+        assertEquals(1, mView.getCoalescedMoveEventCount());
+    }
+
+    private DecoEvent createMoveEvent(int index) {
+        return new DecoEvent.Builder(50)
+                .setIndex(index)
+                .setDuration(1000)
+                .setDelay(DELAY)
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.view.View;
+
+import com.hookedonplay.decoviewlib.charts.SeriesItem;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that {@link DecoView} requests no frames while it is hidden or out of view, and resumes
+ * when it can be seen again
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoViewSuspendTest {
+    private FrameCountingDecoView mView;
+
+    @Before
+    public void setUp() {
+        mView = new FrameCountingDecoView(RuntimeEnvironment.application);
+        mView.addSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 0)
+                .build());
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        activity.setContentView(mView);
+    }
+
+    @Test
+    public void testFrameRequestedWhileVisible() {
+        assertFalse(mView.isAnimationSuspended());
+        assertEquals(0, mView.mFramesPosted);
+        mView.moveTo(new float[]{50f}, 1000);
+        assertEquals(1, mView.mFramesPosted);
+    }
+
+    @Test
+    public void testNoFramesWhileGone() {
+        mView.setVisibility(View.GONE);
+        assertTrue(mView.isAnimationSuspended());
+
+        mView.moveTo(new float[]{50f}, 1000);
+        mView.moveTo(new float[]{75f}, 1000);
+        assertEquals(0, mView.mFramesPosted);
+    }
+
+    @Test
+    public void testFrameRemovedWhenHidden() {
+        mView.moveTo(new float[]{50f}, 1000);
+        assertEquals(1, mView.mFramesPosted);
+
+        mView.setVisibility(View.INVISIBLE);
+        assertEquals(1, mView.mFramesRemoved);
+        mView.moveTo(new float[]{75f}, 1000);
+        assertEquals(1, mView.mFramesPosted);
+    }
+
+    @Test
+    public void testResumeWhenVisible() {
+        mView.setVisibility(View.GONE);
+        mView.moveTo(new float[]{50f}, 1000);
+        assertEquals(0, mView.mFramesPosted);
+
+        mView.setVisibility(View.VISIBLE);
+        assertFalse(mView.isAnimationSuspended());
+        assertEquals(1, mView.mFramesPosted);
+    }
+
+    @Test
+    public void testNoFramesWhileOffscreen() {
+        mView.moveTo(new float[]{50f}, 1000);
+        assertEquals(1, mView.mFramesPosted);
+
+        mView.mOnScreen = false;
+        mView.getViewTreeObserver().dispatchOnGlobalLayout();
+        assertTrue(mView.isAnimationSuspended());
+        assertEquals(1, mView.mFramesRemoved);
+
+        mView.moveTo(new float[]{75f}, 1000);
+        assertEquals(1, mView.mFramesPosted);
+    }
+
+    /**
+     * Counts frame callbacks posted and removed rather than running them. The view is not laid out
+     * on a screen, so the visible area is controlled by the test
+     */
+    static class FrameCountingDecoView extends DecoView {
+        int mFramesPosted;
+        int mFramesRemoved;
+        boolean mOnScreen = true;
+
+        FrameCountingDecoView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void postOnAnimation(Runnable action) {
+            mFramesPosted++;
+        }
+
+        @Override
+        public boolean removeCallbacks(Runnable action) {
+            mFramesRemoved++;
+            return true;
+        }
+
+        @Override
+        public boolean getGlobalVisibleRect(Rect r, Point globalOffset) {
+            r.set(0, 0, 100, 100);
+            return mOnScreen;
+        }
+    }
+}
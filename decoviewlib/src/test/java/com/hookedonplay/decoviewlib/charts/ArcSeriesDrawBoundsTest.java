@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that calculating the area covered by an arc does not replace the angles applied to the
+ * series from a prepared frame
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ArcSeriesDrawBoundsTest {
+    static final private int SIZE = 400;
+
+    @Test
+    public void testDrawBoundsKeepsAppliedAngles() {
+        final RectF bounds = new RectF(0, 0, SIZE, SIZE);
+        final ChartSeries series = new LineArcSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 25)
+                .setLineWidth(10)
+                .build(), 360, 0);
+        final SweepCanvas canvas = new SweepCanvas();
+        series.draw(canvas, bounds);
+        assertEquals(90f, canvas.mSweep, 0.001f);
+
+        final FrameSnapshot frame = new FrameSnapshot();
+        frame.capture(Collections.singletonList(series), 1, SIZE, SIZE, bounds, 360, 0);
+        frame.prepare(null);
+        // The series moves on after the frame was captured
+        series.setPosition(75);
+
+        frame.apply(0);
+        final RectF drawBounds = new RectF();
+        assertTrue(series.calcDrawBounds(bounds, drawBounds));
+        // The bounds are those of the current position, which covers the whole left half
+        assertTrue(drawBounds.left < SIZE / 2);
+        series.draw(canvas, bounds);
+        assertEquals(90f, canvas.mSweep, 0.001f);
+    }
+
+    /**
+     * Records the sweep angle of the last arc drawn
+     */
+    static class SweepCanvas extends Canvas {
+        float mSweep;
+
+        @Override
+        public void drawArc(@NonNull RectF oval, float startAngle, float sweepAngle, boolean useCenter, @NonNull Paint paint) {
+            mSweep = sweepAngle;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.RectF;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+import com.hookedonplay.decoviewlib.util.FastTrig;
+import com.hookedonplay.decoviewlib.util.GenericFunctions;
+import com.hookedonplay.decoviewlib.util.MicroBenchmark;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+
+/**
+ * Micro-benchmarks of the math and drawing run for every series or label on every frame, see
+ * {@link MicroBenchmark} for how to run them
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ChartMathBenchmark {
+    static final private int OPS = 100000;
+    /**
+     * Number of series or labels, from a simple chart to a dense activity chart
+     */
+    static final private int[] COUNTS = {10, 50, 200};
+
+    private MicroBenchmark mBenchmark;
+
+    @Before
+    public void setUp() {
+        mBenchmark = new MicroBenchmark();
+    }
+
+    @Test
+    public void benchmarkTrig() {
+        mBenchmark.measure("Math.sin/cos", OPS, new MicroBenchmark.Body() {
+            @Override
+            public double run(int ops) {
+                double sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    final double radians = Math.toRadians(i % 360);
+                    sum += Math.cos(radians) + Math.sin(radians);
+                }
+                return sum;
+            }
+        });
+        mBenchmark.measure("FastTrig.sin/cos", OPS, new MicroBenchmark.Body() {
+            @Override
+            public double run(int ops) {
+                double sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    final float degrees = i % 360;
+                    sum += FastTrig.cosDegrees(degrees) + FastTrig.sinDegrees(degrees);
+                }
+                return sum;
+            }
+        });
+    }
+
+    @Test
+    public void benchmarkLabelFormatter() {
+        final LabelFormatter formatter = new LabelFormatter("%.1f%%");
+        mBenchmark.measure("LabelFormatter.format", OPS, new MicroBenchmark.Body() {
+            @Override
+            public double run(int ops) {
+                double sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    formatter.format((i % 1000) / 1000f, i % 1000);
+                    sum += formatter.getLength();
+                }
+                return sum;
+            }
+        });
+        mBenchmark.measure("String.format", OPS / 10, new MicroBenchmark.Body() {
+            @Override
+            public double run(int ops) {
+                double sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    sum += String.format("%.1f%%", (i % 1000) / 10f).length();
+                }
+                return sum;
+            }
+        });
+    }
+
+    @Test
+    public void benchmarkLabelOverlaps() {
+        for (final int count : COUNTS) {
+            final RectF[] initial = new RectF[count];
+            final RectF[] rects = new RectF[count];
+            final int[] order = new int[count];
+            final int[] active = new int[count];
+            for (int i = 0; i < count; i++) {
+                // Labels of rings close together, so most labels overlap the label above
+                final float top = (i * 37) % 400;
+                initial[i] = new RectF(100 + (i % 3) * 20, top, 180 + (i % 3) * 20, top + 24);
+                rects[i] = new RectF();
+            }
+            mBenchmark.measure("LabelLayout.resolveOverlaps x" + count, OPS / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        for (int i = 0; i < count; i++) {
+                            rects[i].set(initial[i]);
+                            order[i] = i;
+                        }
+                        LabelLayout.resolveOverlaps(rects, order, active, count, 800, LabelLayout.LABEL_SPACING);
+                        sum += rects[order[count - 1]].bottom;
+                    }
+                    return sum;
+                }
+            });
+        }
+    }
+
+    @Test
+    public void benchmarkLabelPositions() {
+        GenericFunctions.initialize(RuntimeEnvironment.application);
+        final RectF bounds = new RectF(0, 0, 800, 800);
+        for (final int count : COUNTS) {
+            final ArrayList<ChartSeries> chartSeries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                // Each ring further round than the ring inside it, so every label is displayed
+                chartSeries.add(new LineArcSeries(new SeriesItem.Builder(0xFF0000FF)
+                        .setRange(0, count, count - i)
+                        .setSeriesLabel(new SeriesLabel.Builder("%.0f%%").build())
+                        .build(), 360, 0));
+            }
+            final FrameSnapshot[] frames = {new FrameSnapshot(), new FrameSnapshot()};
+            mBenchmark.measure("FrameSnapshot.prepare x" + count, OPS / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        final FrameSnapshot frame = frames[op & 1];
+                        frame.capture(chartSeries, 1, 800, 800, bounds, 360, 0);
+                        frame.prepare(frames[(op + 1) & 1]);
+                        sum += frame.getLabelCount();
+                    }
+                    return sum;
+                }
+            });
+        }
+    }
+
+    @Test
+    public void benchmarkAnimatedLabelValues() {
+        GenericFunctions.initialize(RuntimeEnvironment.application);
+        final RectF bounds = new RectF(0, 0, 800, 800);
+        for (final int count : COUNTS) {
+            final ArrayList<ChartSeries> chartSeries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                chartSeries.add(new LineArcSeries(new SeriesItem.Builder(0xFF0000FF)
+                        .setRange(0, count * 10, (count - i) * 10)
+                        .setSeriesLabel(new SeriesLabel.Builder("%.1f%%").build())
+                        .build(), 360, 0));
+            }
+            final FrameSnapshot[] frames = {new FrameSnapshot(), new FrameSnapshot()};
+            mBenchmark.measure("FrameSnapshot.prepare animated labels x" + count, OPS / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        // Every value moves on every frame, so every label is formatted, measured
+                        // and laid out again while the order of the rings is kept
+                        for (int i = 0; i < count; i++) {
+                            chartSeries.get(i).setPosition((count - i) * 10 - (op % 10));
+                        }
+                        final FrameSnapshot frame = frames[op & 1];
+                        frame.capture(chartSeries, 1, 800, 800, bounds, 360, 0);
+                        frame.prepare(frames[(op + 1) & 1]);
+                        sum += frame.getLabelCount();
+                    }
+                    return sum;
+                }
+            });
+        }
+    }
+
+    @Test
+    public void benchmarkCalcCurrentPosition() {
+        final ChartSeries series = new LineArcSeries(new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 0)
+                .build(), 360, 0);
+        mBenchmark.measure("ChartSeries.calcCurrentPosition", OPS, new MicroBenchmark.Body() {
+            @Override
+            public double run(int ops) {
+                double sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    // A move from one value to another, as on every frame of a move event
+                    sum += series.calcCurrentPosition(i % 100, (i * 7) % 100, 0, 100, (i % 1000) / 1000f,
+                            DecoEvent.EventType.EVENT_MOVE);
+                }
+                return sum;
+            }
+        });
+    }
+
+    @Test
+    public void benchmarkArcSeriesDraw() {
+        final RectF bounds = new RectF(0, 0, 800, 800);
+        final RecordingCanvas canvas = new RecordingCanvas(800, 800);
+        for (final int count : COUNTS) {
+            final ChartSeries[] chartSeries = new ChartSeries[count];
+            for (int i = 0; i < count; i++) {
+                chartSeries[i] = new LineArcSeries(new SeriesItem.Builder(0xFF0000FF)
+                        .setRange(0, 100, 0)
+                        .setLineWidth(4)
+                        .build(), 360, 0);
+            }
+            mBenchmark.measure("ArcSeries.draw x" + count, OPS / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        canvas.reset();
+                        for (int i = 0; i < count; i++) {
+                            // Each series at a new position every frame, as while animating
+                            chartSeries[i].setPosition((op + i) % 100);
+                            chartSeries[i].draw(canvas, bounds);
+                        }
+                        sum += canvas.getCount(RecordingCanvas.Op.DRAW_ARC);
+                    }
+                    return sum;
+                }
+            });
+        }
+    }
+
+    @Test
+    public void benchmarkColorAnimate() {
+        final ColorAnimate colorAnimate = new ColorAnimate(0xFF0000FF, 0x80FF8000);
+        mBenchmark.measure("ColorAnimate.getColorCurrent", OPS, new MicroBenchmark.Body() {
+            @Override
+            public double run(int ops) {
+                double sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    sum += colorAnimate.getColorCurrent((i % 1000) / 1000f);
+                }
+                return sum;
+            }
+        });
+    }
+}
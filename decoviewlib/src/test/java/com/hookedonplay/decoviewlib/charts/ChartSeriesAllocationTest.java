@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that advancing the animation of a series by one frame does not allocate
+ */
+public class ChartSeriesAllocationTest {
+    static final private int WARM_UP_FRAMES = 20000;
+    static final private int MEASURED_FRAMES = 10000;
+    static final private long DURATION = 10 * (WARM_UP_FRAMES + MEASURED_FRAMES);
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+    private ChartSeries mSeries;
+    private float mLastPosition;
+
+    @Before
+    public void setUp() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+
+        SeriesItem seriesItem = new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, 0)
+                .build();
+        // A listener is notified on every frame of a move
+        seriesItem.addArcSeriesItemListener(new SeriesItem.SeriesItemListener() {
+            @Override
+            public void onSeriesItemAnimationProgress(float percentComplete, float currentPosition) {
+                mLastPosition = currentPosition;
+            }
+
+            @Override
+            public void onSeriesItemDisplayProgress(float percentComplete) {
+            }
+        });
+        mSeries = new LineArcSeries(seriesItem, 360, 270);
+    }
+
+    @Test
+    public void testMoveFrameDoesNotAllocate() {
+        mSeries.startAnimateMove(new DecoEvent.Builder(100).setDuration(DURATION).build());
+        assertNoAllocationPerFrame();
+    }
+
+    @Test
+    public void testRevealFrameDoesNotAllocate() {
+        mSeries.startAnimateHideShow(new DecoEvent.Builder(DecoEvent.EventType.EVENT_SHOW, true)
+                .setDuration(DURATION)
+                .build(), true);
+        assertNoAllocationPerFrame();
+    }
+
+    @Test
+    public void testColorChangeFrameDoesNotAllocate() {
+        mSeries.startAnimateColorChange(new DecoEvent.Builder(DecoEvent.EventType.EVENT_COLOR_CHANGE, 0xFFFF0000)
+                .setDuration(DURATION)
+                .build());
+        assertNoAllocationPerFrame();
+    }
+
+    /**
+     * Advance the running animation frame by frame and check that less than one byte is allocated
+     * per frame. Any object allocated on each frame would be at least 16 bytes, so this allows for
+     * a small constant overhead of measuring
+     */
+    private void assertNoAllocationPerFrame() {
+        long frameTime = 0;
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            assertTrue(mSeries.onAnimationFrame(frameTime));
+            frameTime += 10;
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = mThreadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            mSeries.onAnimationFrame(frameTime);
+            frameTime += 10;
+        }
+        final long allocated = mThreadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Allocated " + allocated + " bytes in " + MEASURED_FRAMES + " frames",
+                allocated < MEASURED_FRAMES);
+        assertTrue(mSeries.isAnimating());
+    }
+}
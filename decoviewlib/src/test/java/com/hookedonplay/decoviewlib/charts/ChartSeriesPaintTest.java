@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.Paint;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+import com.hookedonplay.decoviewlib.events.DecoEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Verify that {@link ChartSeries#reset()} reconfigures the existing Paint rather than replacing it
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ChartSeriesPaintTest {
+    static final private int COLOR = 0xFF0000FF;
+    static final private int COLOR_CHANGED = 0xFFFF0000;
+
+    private SeriesItem mSeriesItem;
+    private ChartSeries mSeries;
+
+    @Before
+    public void setUp() {
+        mSeriesItem = new SeriesItem.Builder(COLOR)
+                .setRange(0, 100, 0)
+                .setLineWidth(20)
+                .build();
+        mSeries = new LineArcSeries(mSeriesItem, 360, 270);
+    }
+
+    @Test
+    public void testPaintSurvivesReset() {
+        final Paint paint = mSeries.mPaint;
+        mSeries.reset();
+        assertSame(paint, mSeries.mPaint);
+        mSeries.reset();
+        assertSame(paint, mSeries.mPaint);
+    }
+
+    @Test
+    public void testResetAppliesChangedAttributes() {
+        final Paint paint = mSeries.mPaint;
+        assertEquals(COLOR, paint.getColor());
+        assertEquals(20f, paint.getStrokeWidth(), 0f);
+        assertEquals(Paint.Style.STROKE, paint.getStyle());
+
+        mSeriesItem.setColor(COLOR_CHANGED);
+        mSeriesItem.setLineWidth(40);
+        mSeries.reset();
+
+        assertSame(paint, mSeries.mPaint);
+        assertEquals(COLOR_CHANGED, paint.getColor());
+        assertEquals(40f, paint.getStrokeWidth(), 0f);
+        assertEquals(Paint.Style.STROKE, paint.getStyle());
+    }
+
+    @Test
+    public void testResetDuringColorChange() {
+        final Paint paint = mSeries.mPaint;
+        mSeries.startAnimateColorChange(new DecoEvent.Builder(DecoEvent.EventType.EVENT_COLOR_CHANGE, COLOR_CHANGED)
+                .setDuration(1000)
+                .build());
+        mSeries.onAnimationFrame(0);
+        mSeries.onAnimationFrame(500);
+
+        mSeries.reset();
+
+        assertSame(paint, mSeries.mPaint);
+        assertEquals(COLOR_CHANGED, paint.getColor());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.PointF;
+import android.graphics.RectF;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+import com.hookedonplay.decoviewlib.util.MicroBenchmark;
+import com.hookedonplay.decoviewlib.util.RecordingCanvas;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Micro-benchmark comparing a {@link DenseRingChart} with the same rings drawn as one
+ * {@link ChartSeries} each, see {@link MicroBenchmark} for how to run it
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DenseRingChartBenchmark {
+    static final private int OPS = 100000;
+    static final private int[] RING_COUNTS = {200, 500};
+    static final private float LINE_WIDTH = 1f;
+    static final private float SPACING = 0.5f;
+
+    private final RectF mBounds = new RectF(0, 0, 1600, 1600);
+    private final RecordingCanvas mCanvas = new RecordingCanvas(1600, 1600);
+    private MicroBenchmark mBenchmark;
+
+    @Before
+    public void setUp() {
+        mBenchmark = new MicroBenchmark();
+    }
+
+    @Test
+    public void benchmarkDraw() {
+        for (final int count : RING_COUNTS) {
+            final DenseRingChart chart = new DenseRingChart(0, 100);
+            chart.addRings(count, 0xFF0000FF, LINE_WIDTH, SPACING);
+            mBenchmark.measure("DenseRingChart.draw x" + count, OPS / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        mCanvas.reset();
+                        // Each ring at a new value every frame, as while animating
+                        for (int i = 0; i < count; i++) {
+                            chart.setValue(i, 1 + (op + i) % 99);
+                        }
+                        chart.draw(mCanvas, mBounds, 0, 360);
+                        sum += mCanvas.getCount(RecordingCanvas.Op.DRAW_ARC);
+                    }
+                    return sum;
+                }
+            });
+
+            // The same rings, each with its own series, inset and paint
+            final ChartSeries[] chartSeries = new ChartSeries[count];
+            for (int i = 0; i < count; i++) {
+                final float inset = i * (LINE_WIDTH + SPACING);
+                chartSeries[i] = new LineArcSeries(new SeriesItem.Builder(0xFF0000FF)
+                        .setRange(0, 100, 0)
+                        .setLineWidth(LINE_WIDTH)
+                        .setInset(new PointF(inset, inset))
+                        .build(), 360, 0);
+            }
+            mBenchmark.measure("ChartSeries.draw x" + count, OPS / count, new MicroBenchmark.Body() {
+                @Override
+                public double run(int ops) {
+                    double sum = 0;
+                    for (int op = 0; op < ops; op++) {
+                        mCanvas.reset();
+                        for (int i = 0; i < count; i++) {
+                            chartSeries[i].setPosition(1 + (op + i) % 99);
+                            chartSeries[i].draw(mCanvas, mBounds);
+                        }
+                        sum += mCanvas.getCount(RecordingCanvas.Op.DRAW_ARC);
+                    }
+                    return sum;
+                }
+            });
+        }
+    }
+}
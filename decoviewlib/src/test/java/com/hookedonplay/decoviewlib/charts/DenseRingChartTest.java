@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.view.animation.LinearInterpolator;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify the animation of a {@link DenseRingChart}, that it only requests animation frames when
+ * animating, and that each ring is drawn with its own color and width when the paint is only
+ * changed between rings that differ
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DenseRingChartTest {
+    static final private int RED = 0xFFFF0000;
+    static final private int BLUE = 0xFF0000FF;
+    static final private long DURATION = 1000;
+
+    private final RectF mBounds = new RectF(0, 0, 400, 400);
+    private DenseRingChart mChart;
+    private int mFramesRequested;
+    private int mInvalidatesRequested;
+
+    @Before
+    public void setUp() {
+        mChart = new DenseRingChart(0, 100);
+        mChart.setInterpolator(new LinearInterpolator());
+        mChart.addRings(4, BLUE, 10, 2);
+        mChart.setFrameRequestListener(new DenseRingChart.FrameRequestListener() {
+            @Override
+            public void onFrameRequested(@NonNull DenseRingChart chart) {
+                mFramesRequested++;
+            }
+
+            @Override
+            public void onInvalidateRequested(@NonNull DenseRingChart chart) {
+                mInvalidatesRequested++;
+            }
+        });
+    }
+
+    @Test
+    public void testAnimateTo() {
+        mChart.animateTo(new float[]{100, 50, Float.NaN}, DURATION);
+        assertTrue(mChart.isAnimating());
+
+        assertTrue(mChart.onAnimationFrame(5000));
+        assertEquals(0f, mChart.getValue(0), 0f);
+        assertTrue(mChart.onAnimationFrame(5000 + DURATION / 2));
+        assertEquals(50f, mChart.getValue(0), 0.001f);
+        assertEquals(25f, mChart.getValue(1), 0.001f);
+
+        // Animating again moves from the current values
+        mChart.animateTo(new float[]{0}, DURATION);
+        assertTrue(mChart.onAnimationFrame(6000));
+        assertTrue(mChart.onAnimationFrame(6000 + DURATION / 2));
+        assertEquals(25f, mChart.getValue(0), 0.001f);
+        assertEquals(25f, mChart.getValue(1), 0.001f);
+        assertFalse(mChart.onAnimationFrame(6000 + DURATION));
+        assertFalse(mChart.isAnimating());
+        assertEquals(0f, mChart.getValue(0), 0f);
+        assertEquals(25f, mChart.getValue(1), 0f);
+        // Rings without a value, or with NaN, are never moved
+        assertEquals(0f, mChart.getValue(2), 0f);
+        assertEquals(0f, mChart.getValue(3), 0f);
+    }
+
+    @Test
+    public void testAnimateToWithoutDuration() {
+        mChart.animateTo(new float[]{10, 20, 30, 40}, 0);
+        assertFalse(mChart.isAnimating());
+        assertFalse(mChart.onAnimationFrame(0));
+        assertEquals(40f, mChart.getValue(3), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnimateToMoreValuesThanRings() {
+        mChart.animateTo(new float[5], DURATION);
+    }
+
+    @Test
+    public void testFrameOnlyRequestedWhenAnimating() {
+        mChart.setColors(new int[]{RED, RED});
+        mChart.setRoundCap(true);
+        mChart.setColor(3, RED);
+        mChart.setValue(0, 50);
+        assertEquals(0, mFramesRequested);
+        assertEquals(4, mInvalidatesRequested);
+
+        mChart.animateTo(new float[]{100}, DURATION);
+        assertEquals(1, mFramesRequested);
+        assertEquals(4, mInvalidatesRequested);
+        // Changes made while animating are drawn on the next frame
+        mChart.setColors(new int[]{BLUE});
+        assertEquals(1, mFramesRequested);
+        assertEquals(4, mInvalidatesRequested);
+        assertTrue(mChart.isChanged());
+    }
+
+    @Test
+    public void testEachRingDrawnWithOwnPaint() {
+        mChart.addRing(RED, 10, 60, 0);
+        mChart.addRing(RED, 20, 80, 0);
+        mChart.setColors(new int[]{RED, BLUE, BLUE, RED});
+        mChart.animateTo(new float[]{100, 100, 0, 100, 100, 100}, 0);
+
+        final PaintCanvas canvas = new PaintCanvas();
+        mChart.draw(canvas, mBounds, 0, 360);
+        // The empty third ring is not drawn, so the paint moves from blue straight to red
+        assertEquals(5, canvas.mColors.size());
+        assertColors(canvas, RED, BLUE, RED, RED, RED);
+        assertWidths(canvas, 10, 10, 10, 10, 20);
+        assertFalse(mChart.isChanged());
+
+        // The paint keeps the attributes of the last ring drawn on the previous frame
+        mChart.setColor(0, RED);
+        mChart.setColor(1, RED);
+        mChart.setColor(4, BLUE);
+        canvas.reset();
+        mChart.draw(canvas, mBounds, 0, 360);
+        assertColors(canvas, RED, RED, RED, BLUE, RED);
+        assertWidths(canvas, 10, 10, 10, 10, 20);
+    }
+
+    private void assertColors(PaintCanvas canvas, int... colors) {
+        assertEquals(colors.length, canvas.mColors.size());
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(colors[i], (int) canvas.mColors.get(i));
+        }
+    }
+
+    private void assertWidths(PaintCanvas canvas, float... widths) {
+        assertEquals(widths.length, canvas.mWidths.size());
+        for (int i = 0; i < widths.length; i++) {
+            assertEquals(widths[i], canvas.mWidths.get(i), 0f);
+        }
+    }
+
+    /**
+     * Records the color and width of the paint used for each arc
+     */
+    static class PaintCanvas extends Canvas {
+        final List<Integer> mColors = new ArrayList<>();
+        final List<Float> mWidths = new ArrayList<>();
+
+        void reset() {
+            mColors.clear();
+            mWidths.clear();
+        }
+
+        @Override
+        public void drawArc(@NonNull RectF oval, float startAngle, float sweepAngle, boolean useCenter, @NonNull Paint paint) {
+            mColors.add(paint.getColor());
+            mWidths.add(paint.getStrokeWidth());
+        }
+    }
+}
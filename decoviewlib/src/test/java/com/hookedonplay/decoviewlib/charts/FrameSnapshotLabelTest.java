@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.RectF;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+import com.hookedonplay.decoviewlib.util.GenericFunctions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that the labels chosen by {@link FrameSnapshot} in one reverse pass over the series match
+ * those of the original O(n^2) scan, which checked every series drawn after each series
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class FrameSnapshotLabelTest {
+    static final private int SIZE = 400;
+    static final private int TOTAL_ANGLE = 300;
+    static final private int ROTATE_ANGLE = 120;
+
+    @Before
+    public void setUp() {
+        // Labels are sized in dp
+        GenericFunctions.initialize(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void testMatchesScanOfLaterSeries() {
+        final Random random = new Random(42);
+        int labels = 0;
+        int hidden = 0;
+        for (int run = 0; run < 50; run++) {
+            final int count = 1 + random.nextInt(40);
+            final ArrayList<ChartSeries> chartSeries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final ChartSeries series = createSeries(random);
+                hidden += series.isVisible() ? 0 : 1;
+                chartSeries.add(series);
+            }
+            labels += assertLabels(chartSeries);
+        }
+        assertTrue(labels > 0 && hidden > 0);
+    }
+
+    @Test
+    public void testEqualPositionsHideLabel() {
+        final Random random = new Random(7);
+        final ArrayList<ChartSeries> chartSeries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final ChartSeries series = createSeries(random);
+            series.setPosition(50);
+            chartSeries.add(series);
+        }
+        assertLabels(chartSeries);
+    }
+
+    private int assertLabels(ArrayList<ChartSeries> chartSeries) {
+        final FrameSnapshot frame = new FrameSnapshot();
+        frame.capture(chartSeries, 1, SIZE, SIZE, new RectF(0, 0, SIZE, SIZE), TOTAL_ANGLE, ROTATE_ANGLE);
+        frame.prepare(null);
+
+        int label = 0;
+        for (int i = 0; i < chartSeries.size(); i++) {
+            final ChartSeries series = chartSeries.get(i);
+            final float expected = getLabelPosition(chartSeries, i);
+            if (expected < 0 || !series.isVisible() || series.getSeriesItem().getSeriesLabel() == null) {
+                continue;
+            }
+            assertEquals(i, frame.getLabelSeries(label));
+            assertEquals(expected, frame.getLabelAngle(label), 0f);
+            label++;
+        }
+        assertEquals(label, frame.getLabelCount());
+        return label;
+    }
+
+    /**
+     * Label position as calculated before the single pass, by scanning every series drawn after
+     * the series for the maximum position
+     *
+     * @return < 0 if label not visible, else 0f .. 1.0f to indicate position on circle
+     */
+    private float getLabelPosition(ArrayList<ChartSeries> chartSeries, int index) {
+        float max = 0.0f;
+        for (int i = index + 1; i < chartSeries.size(); i++) {
+            ChartSeries innerSeries = chartSeries.get(i);
+            if (innerSeries.isVisible() && max < innerSeries.getPositionPercent()) {
+                max = innerSeries.getPositionPercent();
+            }
+        }
+
+        final float positionPercent = chartSeries.get(index).getPositionPercent();
+        if (max < positionPercent) {
+            float adjusted = ((positionPercent + max) / 2) * ((float) TOTAL_ANGLE / 360f);
+            float adjust = adjusted + (((float) ROTATE_ANGLE + 90f) / 360f);
+            while (adjust > 1.0f) {
+                adjust -= 1.0f;
+            }
+            return adjust;
+        }
+        return -1f;
+    }
+
+    private ChartSeries createSeries(Random random) {
+        final SeriesItem.Builder builder = new SeriesItem.Builder(0xFF0000FF)
+                .setRange(0, 100, random.nextInt(101))
+                .setInitialVisibility(random.nextInt(5) != 0);
+        if (random.nextInt(4) != 0) {
+            builder.setSeriesLabel(new SeriesLabel.Builder("%.0f%%").build());
+        }
+        return new LineArcSeries(builder.build(), TOTAL_ANGLE, ROTATE_ANGLE);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.charts;
+
+import android.graphics.RectF;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify that the sweep of {@link LabelLayout#resolveOverlaps} moves every label to the same
+ * place as the original O(n^2) pass, which compared each label with every label placed above it
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class LabelLayoutTest {
+    static final private int HEIGHT = 400;
+
+    @Test
+    public void testMatchesPassOverAllPlacedLabels() {
+        final Random random = new Random(42);
+        int moved = 0;
+        for (int run = 0; run < 200; run++) {
+            final int count = 1 + random.nextInt(60);
+            final RectF[] rects = new RectF[count];
+            final RectF[] expected = new RectF[count];
+            final float[] tops = new float[count];
+            for (int i = 0; i < count; i++) {
+                // Labels of rings close together, so most labels overlap a label above them
+                final float left = random.nextInt(300);
+                final float top = random.nextInt(HEIGHT - 20);
+                rects[i] = new RectF(left, top, left + 40 + random.nextInt(60), top + 10 + random.nextInt(20));
+                expected[i] = new RectF(rects[i]);
+                tops[i] = top;
+            }
+            final int[] order = createOrder(count);
+            final int[] expectedOrder = createOrder(count);
+
+            LabelLayout.resolveOverlaps(rects, order, new int[count], count, HEIGHT, LabelLayout.LABEL_SPACING);
+            resolveOverlapsWithAllPlaced(expected, expectedOrder, count);
+
+            assertArrayEquals(expectedOrder, order);
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected[i], rects[i]);
+                moved += rects[i].top != tops[i] ? 1 : 0;
+            }
+        }
+        assertTrue(moved > 0);
+    }
+
+    private int[] createOrder(int count) {
+        final int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Overlaps resolved as before the sweep, comparing each label with every label placed before
+     * it
+     */
+    private void resolveOverlapsWithAllPlaced(RectF[] rects, int[] order, int count) {
+        for (int i = 1; i < count; i++) {
+            final int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && rects[order[j]].top > rects[index].top) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+
+        final float spacing = LabelLayout.LABEL_SPACING;
+        // The original pass started from the second label, so the top label was never kept inside
+        // the canvas. The sweep places every label the same way, including the first
+        for (int i = 0; i < count; i++) {
+            final RectF rect = rects[order[i]];
+            for (int j = 0; j < i; j++) {
+                final RectF placed = rects[order[j]];
+                if (rect.left < placed.right && placed.left < rect.right &&
+                        rect.top < placed.bottom + spacing && placed.top < rect.bottom) {
+                    rect.offset(0, placed.bottom + spacing - rect.top);
+                }
+            }
+            if (rect.bottom > HEIGHT) {
+                rect.offset(0, HEIGHT - rect.bottom);
+            }
+        }
+    }
+}
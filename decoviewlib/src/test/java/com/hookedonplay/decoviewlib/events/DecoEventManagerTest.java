@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.events;
+
+import android.support.annotation.NonNull;
+
+import com.hookedonplay.decoviewlib.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verify when {@link DecoEventManager} considers an executed event to have ended. The listener
+ * stands in for the series, starting the given number of animations for each event executed.
+ * <p/>
+ * Events on the timeline are returned by {@link DecoEventManager#getPendingEvents()} before events
+ * waiting for another event to end, so a waiting event that is due before the marker event has
+ * been moved to the timeline
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DecoEventManagerTest {
+    private DecoEventManager mManager;
+    private int mAnimationsStarted;
+    private DecoEvent mMarker;
+
+    @Before
+    public void setUp() {
+        mManager = new DecoEventManager(new DecoEventManager.ArcEventManagerListener() {
+            @Override
+            public void onExecuteEventStart(@NonNull DecoEvent event) {
+                for (int i = 0; i < mAnimationsStarted; i++) {
+                    event.notifyStartListener();
+                }
+            }
+        });
+        mMarker = createMoveEvent(0, 5000);
+        mManager.add(mMarker);
+    }
+
+    @Test
+    public void testEventStartingNothingHasEnded() {
+        mAnimationsStarted = 0;
+        final DecoEvent first = createMoveEvent(0, 0);
+        mManager.execute(first);
+
+        final DecoEvent second = createMoveEvent(0, 0);
+        mManager.addAfter(first, second);
+        assertEquals(Arrays.asList(second, mMarker), mManager.getPendingEvents());
+    }
+
+    @Test
+    public void testWaitingEventScheduledWhenNothingStarted() {
+        mAnimationsStarted = 0;
+        final DecoEvent first = createMoveEvent(0, 0);
+        final DecoEvent second = createMoveEvent(0, 0);
+        mManager.add(first);
+        mManager.addAfter(first, second);
+
+        mManager.execute(first);
+        assertEquals(Arrays.asList(first, second, mMarker), mManager.getPendingEvents());
+    }
+
+    @Test
+    public void testAllSeriesEndBeforeWaitingEvent() {
+        mAnimationsStarted = 3;
+        final DecoEvent all = createMoveEvent(-1, 0);
+        mManager.execute(all);
+
+        final DecoEvent after = createMoveEvent(0, 0);
+        mManager.addAfter(all, after);
+
+        all.notifyEndListener();
+        all.notifyAnimationEnd();
+        assertEquals(Arrays.asList(mMarker, after), mManager.getPendingEvents());
+
+        all.notifyEndListener();
+        assertEquals(Arrays.asList(after, mMarker), mManager.getPendingEvents());
+    }
+
+    @Test
+    public void testCoalescedMoveNotPending() {
+        mManager.setCoalesceMoves(true);
+        final DecoEvent first = createMoveEvent(1, 1000);
+        final DecoEvent second = createMoveEvent(1, 1000);
+        mManager.add(first);
+        mManager.add(second);
+
+        assertEquals(1, mManager.getCoalescedCount());
+        assertEquals(2, mManager.getPendingCount());
+        assertEquals(Arrays.asList(second, mMarker), mManager.getPendingEvents());
+
+        // Sequencing after the replaced event schedules immediately as it is no longer pending
+        final DecoEvent after = createMoveEvent(0, 0);
+        mManager.addAfter(first, after);
+        assertEquals(Arrays.asList(after, second, mMarker), mManager.getPendingEvents());
+    }
+
+    private DecoEvent createMoveEvent(int index, long delay) {
+        return new DecoEvent.Builder(50)
+                .setIndex(index)
+                .setDelay(delay)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verify the maximum error of {@link FastTrig} against {@link Math#sin(double)} and
+ * {@link Math#cos(double)} over several revolutions in both directions
+ */
+public class FastTrigTest {
+    /**
+     * Maximum error documented by {@link FastTrig}
+     */
+    static final private double MAX_ERROR = 1e-5;
+    /**
+     * Radius of a series filling a 4K canvas, at which the error must remain below a tenth of a
+     * pixel
+     */
+    static final private double RADIUS_4K = 2160;
+    static final private int STEPS = 1000000;
+    static final private double RANGE_DEGREES = 4 * 360;
+
+    @Test
+    public void testRadians() {
+        double maxSinError = 0;
+        double maxCosError = 0;
+        for (int i = -STEPS; i <= STEPS; i++) {
+            final float radians = (float) Math.toRadians(RANGE_DEGREES * i / STEPS);
+            maxSinError = Math.max(maxSinError, Math.abs(FastTrig.sin(radians) - Math.sin(radians)));
+            maxCosError = Math.max(maxCosError, Math.abs(FastTrig.cos(radians) - Math.cos(radians)));
+        }
+        assertMaxError("sin", maxSinError);
+        assertMaxError("cos", maxCosError);
+    }
+
+    @Test
+    public void testDegrees() {
+        double maxSinError = 0;
+        double maxCosError = 0;
+        for (int i = -STEPS; i <= STEPS; i++) {
+            final float degrees = (float) (RANGE_DEGREES * i / STEPS);
+            final double radians = Math.toRadians(degrees);
+            maxSinError = Math.max(maxSinError, Math.abs(FastTrig.sinDegrees(degrees) - Math.sin(radians)));
+            maxCosError = Math.max(maxCosError, Math.abs(FastTrig.cosDegrees(degrees) - Math.cos(radians)));
+        }
+        assertMaxError("sinDegrees", maxSinError);
+        assertMaxError("cosDegrees", maxCosError);
+    }
+
+    private void assertMaxError(String name, double maxError) {
+        assertTrue(name + " max error " + maxError, maxError < MAX_ERROR);
+        assertTrue(name + " max error at 4K " + maxError * RADIUS_4K + "px", maxError * RADIUS_4K < 0.1);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2015 Brent Marriott
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hookedonplay.decoviewlib.util;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Minimal JVM micro-benchmark for the unit tests. Each benchmark is warmed up, then timed over a
+ * number of runs, reporting the operations per second of the fastest run and the bytes allocated
+ * per operation.
+ * <p/>
+ * Benchmarks are slow so they only run when the system property {@link #ENABLE_PROPERTY} is set,
+ * which the build sets when run with {@code -Pbenchmark}, for example
+ * {@code ./gradlew :decoviewlib:testDebugUnitTest -Pbenchmark --tests '*Benchmark'}
+ */
+public class MicroBenchmark {
+    static final public String ENABLE_PROPERTY = "decoview.benchmark";
+    static final private int WARM_UP_RUNS = 20;
+    static final private int MEASURED_RUNS = 10;
+
+    /**
+     * Body of a benchmark. Results must be returned so the work can not be removed as dead code
+     */
+    public interface Body {
+        /**
+         * Run the operation being measured the given number of times
+         *
+         * @param ops number of operations
+         * @return any value derived from every operation
+         */
+        double run(int ops);
+    }
+
+    private final com.sun.management.ThreadMXBean mThreadBean;
+    /**
+     * Sum of all results, stored so no result is unused
+     */
+    private double mSink;
+
+    /**
+     * Create a benchmark, skipping the calling test unless benchmarks are enabled
+     */
+    public MicroBenchmark() {
+        Assume.assumeTrue(Boolean.getBoolean(ENABLE_PROPERTY));
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            mThreadBean = (com.sun.management.ThreadMXBean) bean;
+            mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            mThreadBean = null;
+        }
+    }
+
+    /**
+     * Measure a benchmark and print the result
+     *
+     * @param name name to report
+     * @param ops  number of operations in each run
+     * @param body operation to measure
+     * @return operations per second of the fastest run
+     */
+    public double measure(String name, int ops, Body body) {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            mSink += body.run(ops);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = mThreadBean != null ? mThreadBean.getThreadAllocatedBytes(threadId) : 0;
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            final long start = System.nanoTime();
+            mSink += body.run(ops);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        final long allocated = mThreadBean != null ? mThreadBean.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+
+        final double opsPerSecond = ops * 1e9 / Math.max(fastest, 1);
+        final String allocation = allocated >= 0 ?
+                String.format(Locale.US, "%.2f B/op", allocated / (double) (ops * MEASURED_RUNS)) : "n/a";
+        System.out.println(String.format(Locale.US, "%-40s %14.0f ops/s %12s", name, opsPerSecond, allocation));
+        return opsPerSecond;
+    }
+}